@@ -0,0 +1,94 @@
+package frc.lib;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.wpi.first.networktables.NetworkTableInstance;
+import frc.lib.LimelightHelpers.LimelightResults;
+import frc.lib.LimelightHelpers.MutablePoseEstimate;
+import frc.lib.LimelightHelpers.PoseEstimate;
+
+/**
+ * LimelightHelpers parsing and NetworkTables access:
+ * <ul>
+ *   <li>botpose array parsing into a new {@link PoseEstimate} against a reused
+ *       {@link MutablePoseEstimate}</li>
+ *   <li>JSON results parsing on its own, and {@link LimelightHelpers#getLatestResults} reading the
+ *       same JSON from the "json" entry and parsing it</li>
+ *   <li>a cached typed entry read against looking the table and entry up on every call</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LimelightHelpersBenchmark {
+  private static final String LIMELIGHT = "limelight-bench";
+
+  // Three-tag MegaTag2 frame: 11 header values followed by 7 values per fiducial
+  private final double[] poseArray = {
+      3.2, 4.1, 0, 0, 0, 35.0, 22.5, 3, 1.8, 2.6, 0.4,
+      4, 0.1, -0.2, 0.5, 2.4, 2.6, 0.05,
+      7, -0.3, 0.1, 0.3, 2.9, 3.1, 0.12,
+      8, 0.2, 0.0, 0.4, 2.5, 2.7, 0.08};
+  private final MutablePoseEstimate mutableEstimate = new MutablePoseEstimate();
+  private long timestamp = 1_000_000;
+
+  private static final String JSON =
+      "{\"pID\":0,\"tl\":12.5,\"cl\":18.2,\"ts\":123456.7,\"ts_rio\":98.76,\"v\":1,"
+          + "\"botpose\":[1.1,2.2,0,0,0,35,22.5,2,1.8,2.6,0.4],"
+          + "\"botpose_wpiblue\":[9.3,6.2,0,0,0,35,22.5,2,1.8,2.6,0.4],"
+          + "\"botpose_wpired\":[7.5,1.9,0,0,0,215,22.5,2,1.8,2.6,0.4],"
+          + "\"botpose_tagcount\":2,\"botpose_span\":1.8,\"botpose_avgdist\":2.6,\"botpose_avgarea\":0.4,"
+          + "\"Fiducial\":[{\"fID\":4,\"fam\":\"36H11\",\"tx\":-3.1,\"ty\":2.2,\"ta\":0.5,"
+          + "\"t6c_ts\":[0.1,0.2,-2.4,0,5,0],\"t6r_fs\":[9.3,6.2,0,0,0,35],"
+          + "\"t6r_ts\":[0.1,0.2,-2.5,0,5,0],\"t6t_cs\":[-0.1,0.2,2.4,0,-5,0],"
+          + "\"t6t_rs\":[-0.1,0.3,2.5,0,-5,0]},"
+          + "{\"fID\":7,\"fam\":\"36H11\",\"tx\":4.0,\"ty\":1.7,\"ta\":0.3,"
+          + "\"t6c_ts\":[0.3,0.2,-2.9,0,-8,0],\"t6r_fs\":[9.3,6.2,0,0,0,35],"
+          + "\"t6r_ts\":[0.3,0.2,-3.0,0,-8,0],\"t6t_cs\":[-0.3,0.2,2.9,0,8,0],"
+          + "\"t6t_rs\":[-0.3,0.3,3.0,0,8,0]}]}";
+
+  @Setup
+  public void setup() {
+    // Warm the entry cache and make the raw entry exist
+    LimelightHelpers.setLimelightNTDouble(LIMELIGHT, "tx", 1.5);
+    LimelightHelpers.getLimelightNTDouble(LIMELIGHT, "tx");
+    // Publish the frame where the Limelight would, so getLatestResults reads it through NT
+    LimelightHelpers.getLimelightStringEntry(LIMELIGHT, "json").set(JSON);
+  }
+
+  @Benchmark
+  public PoseEstimate parsePoseEstimateAllocating() {
+    return LimelightHelpers.parsePoseEstimate(poseArray, timestamp++, true);
+  }
+
+  @Benchmark
+  public MutablePoseEstimate parsePoseEstimateIntoBuffer() {
+    LimelightHelpers.parsePoseEstimate(poseArray, timestamp++, true, mutableEstimate);
+    return mutableEstimate;
+  }
+
+  @Benchmark
+  public LimelightResults parseResultsJson() {
+    return LimelightHelpers.parseResults(JSON);
+  }
+
+  @Benchmark
+  public LimelightResults getLatestResults() {
+    return LimelightHelpers.getLatestResults(LIMELIGHT);
+  }
+
+  @Benchmark
+  public double readCachedEntry() {
+    return LimelightHelpers.getLimelightNTDouble(LIMELIGHT, "tx");
+  }
+
+  @Benchmark
+  public double readUncachedEntry() {
+    return NetworkTableInstance.getDefault().getTable(LIMELIGHT).getEntry("tx").getDouble(0.0);
+  }
+}
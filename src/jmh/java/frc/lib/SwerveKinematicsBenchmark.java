@@ -0,0 +1,87 @@
+package frc.lib;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import frc.robot.Constants.SwerveConstants;
+import frc.robot.SwerveModule;
+
+/**
+ * The chain behind {@code SwerveSubsystem.driveFromChassisSpeeds}: inverse kinematics,
+ * desaturation and per-module optimization. Compares the preallocated primitive path the
+ * subsystem uses with the WPILib object path it replaced.
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SwerveKinematicsBenchmark {
+  private static final int CASES = 64;
+
+  private final MutableSwerveKinematics mutableKinematics = new MutableSwerveKinematics(
+      SwerveConstants.moduleData[0].location(),
+      SwerveConstants.moduleData[1].location(),
+      SwerveConstants.moduleData[2].location(),
+      SwerveConstants.moduleData[3].location());
+  private final SwerveDriveKinematics wpilibKinematics = SwerveConstants.swerveKinematics;
+
+  private final double[] vx = new double[CASES];
+  private final double[] vy = new double[CASES];
+  private final double[] omega = new double[CASES];
+  private final double[] currentAngles = new double[4];
+  private final Rotation2d[] currentRotations = new Rotation2d[4];
+  private final double[] optimized = new double[2];
+  private int index = 0;
+
+  @Setup
+  public void setup() {
+    for (int i = 0; i < CASES; i++) {
+      double t = i * 2 * Math.PI / CASES;
+      // Some requests exceed max speed so desaturation does real work
+      vx[i] = 4.0 * Math.cos(t);
+      vy[i] = 4.0 * Math.sin(t);
+      omega[i] = 3.0 * Math.sin(2 * t);
+    }
+    for (int m = 0; m < 4; m++) {
+      currentAngles[m] = 30.0 * m;
+      currentRotations[m] = Rotation2d.fromDegrees(currentAngles[m]);
+    }
+  }
+
+  private int next() {
+    index = (index + 1) & (CASES - 1);
+    return index;
+  }
+
+  @Benchmark
+  public void mutableKinematics(Blackhole bh) {
+    int i = next();
+    mutableKinematics.toModuleStates(vx[i], vy[i], omega[i]);
+    mutableKinematics.desaturate(SwerveConstants.maxSpeed);
+    for (int m = 0; m < 4; m++) {
+      SwerveModule.optimize(
+          mutableKinematics.getSpeed(m), mutableKinematics.getAngleDegrees(m), currentAngles[m], optimized);
+      bh.consume(optimized[0]);
+      bh.consume(optimized[1]);
+    }
+  }
+
+  @Benchmark
+  public void wpilibKinematics(Blackhole bh) {
+    int i = next();
+    SwerveModuleState[] states = wpilibKinematics.toSwerveModuleStates(new ChassisSpeeds(vx[i], vy[i], omega[i]));
+    SwerveDriveKinematics.desaturateWheelSpeeds(states, SwerveConstants.maxSpeed);
+    for (int m = 0; m < 4; m++) {
+      states[m].optimize(currentRotations[m]);
+      bh.consume(states[m]);
+    }
+  }
+}
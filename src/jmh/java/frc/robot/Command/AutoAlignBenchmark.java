@@ -0,0 +1,46 @@
+package frc.robot.Command;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+
+/** The orbit math run by {@link AutoAlign#execute()} every loop, from poses around the hub. */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AutoAlignBenchmark {
+  private static final int CASES = 64;
+  private static final Translation2d HUB = new Translation2d(4.61, 4.03);
+
+  private final Pose2d[] poses = new Pose2d[CASES];
+  private final PIDController radiusController = new PIDController(1.6, 0, 0);
+  private final PIDController headingController = new PIDController(4.5, 0, 0);
+  private int index = 0;
+
+  @Setup
+  public void setup() {
+    for (int i = 0; i < CASES; i++) {
+      double t = i * 2 * Math.PI / CASES;
+      double radius = 1.5 + (i % 8) * 0.2;
+      poses[i] = new Pose2d(
+          HUB.getX() + radius * Math.cos(t), HUB.getY() + radius * Math.sin(t), new Rotation2d(t));
+    }
+    radiusController.setSetpoint(2.22);
+    headingController.enableContinuousInput(-Math.PI, Math.PI);
+  }
+
+  @Benchmark
+  public ChassisSpeeds orbitSpeeds() {
+    index = (index + 1) & (CASES - 1);
+    return AutoAlign.calculateOrbitSpeeds(poses[index], HUB, true, radiusController, headingController);
+  }
+}
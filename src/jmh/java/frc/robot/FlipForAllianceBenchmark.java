@@ -0,0 +1,51 @@
+package frc.robot;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.wpi.first.hal.AllianceStationID;
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import frc.robot.Constants.FieldConstants;
+
+/**
+ * {@link FieldConstants#flipForAlliance} overloads on the red alliance, where they do the most
+ * work. Each call reads the alliance from the simulated Driver Station.
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FlipForAllianceBenchmark {
+  private final Translation2d translation = new Translation2d(4.61, 4.03);
+  private final Rotation2d rotation = Rotation2d.fromDegrees(234.0);
+  private final Pose2d pose = new Pose2d(translation, rotation);
+
+  @Setup
+  public void setup() {
+    HAL.initialize(500, 0);
+    DriverStationSim.setAllianceStationId(AllianceStationID.Red1);
+    DriverStationSim.notifyNewData();
+  }
+
+  @Benchmark
+  public Translation2d flipTranslation() {
+    return FieldConstants.flipForAlliance(translation);
+  }
+
+  @Benchmark
+  public Rotation2d flipRotation() {
+    return FieldConstants.flipForAlliance(rotation);
+  }
+
+  @Benchmark
+  public Pose2d flipPose() {
+    return FieldConstants.flipForAlliance(pose);
+  }
+}
@@ -0,0 +1,57 @@
+package frc.robot;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+
+/**
+ * {@link SwerveModule#optimize} on primitives against WPILib's {@link SwerveModuleState#optimize}
+ * on objects, over a spread of desired/current angles so both branches get exercised.
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SwerveModuleOptimizeBenchmark {
+  private static final int CASES = 64;
+
+  private final double[] desiredAngles = new double[CASES];
+  private final double[] currentAngles = new double[CASES];
+  private final double[] out = new double[2];
+  private int index = 0;
+
+  @Setup
+  public void setup() {
+    for (int i = 0; i < CASES; i++) {
+      desiredAngles[i] = -180 + i * 360.0 / CASES;
+      currentAngles[i] = (i * 137.0) % 720 - 360;
+    }
+  }
+
+  private int next() {
+    index = (index + 1) & (CASES - 1);
+    return index;
+  }
+
+  @Benchmark
+  public void primitiveOptimize(Blackhole bh) {
+    int i = next();
+    SwerveModule.optimize(2.5, desiredAngles[i], currentAngles[i], out);
+    bh.consume(out[0]);
+    bh.consume(out[1]);
+  }
+
+  @Benchmark
+  public SwerveModuleState wpilibOptimize() {
+    int i = next();
+    SwerveModuleState state = new SwerveModuleState(2.5, Rotation2d.fromDegrees(desiredAngles[i]));
+    state.optimize(Rotation2d.fromDegrees(currentAngles[i]));
+    return state;
+  }
+}
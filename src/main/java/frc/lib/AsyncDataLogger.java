@@ -0,0 +1,228 @@
+package frc.lib;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import edu.wpi.first.util.WPIUtilJNI;
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.RawLogEntry;
+import edu.wpi.first.util.struct.Struct;
+import edu.wpi.first.wpilibj.DataLogManager;
+
+/**
+ * On-robot binary logging that never blocks the robot loop on {@link DataLog}.
+ *
+ * <p>Channels are registered once (doubles, booleans, structs and struct arrays). Logging a value
+ * packs it into a slot of a preallocated single-producer/single-consumer ring buffer together
+ * with its timestamp; a background thread drains the ring into the {@link DataLogManager} log,
+ * which writes to a USB drive when one is plugged into the roboRIO. When the writer falls behind
+ * and the ring is full, new records are dropped and counted rather than waiting.
+ *
+ * <p>Register every channel before {@link #start()}, and log only from the robot loop thread.
+ */
+public final class AsyncDataLogger {
+  private static final int QUEUE_CAPACITY = 1024;
+  private static final long WRITER_PERIOD_NANOS = 5_000_000;
+
+  private static final List<RawLogEntry> entries = new ArrayList<>();
+  private static int maxPayloadBytes = 8;
+
+  private static int[] slotChannels;
+  private static long[] slotTimestamps;
+  private static int[] slotLengths;
+  private static byte[][] slotPayloads;
+  private static ByteBuffer[] slotBuffers;
+
+  // Written only by the robot loop / only by the writer thread respectively
+  private static final AtomicLong writeIndex = new AtomicLong();
+  private static final AtomicLong readIndex = new AtomicLong();
+
+  private static final AtomicLong droppedRecords = new AtomicLong();
+  private static final AtomicLong writtenRecords = new AtomicLong();
+  private static volatile boolean running = false;
+  private static Thread writer;
+
+  private AsyncDataLogger() {}
+
+  /** A logged number. */
+  public static final class DoubleChannel {
+    private final int id;
+
+    private DoubleChannel(int id) {
+      this.id = id;
+    }
+
+    public void log(double value) {
+      ByteBuffer bb = claim();
+      if (bb == null) {
+        return;
+      }
+      bb.putDouble(value);
+      commit(id, bb);
+    }
+  }
+
+  /** A logged boolean. */
+  public static final class BooleanChannel {
+    private final int id;
+
+    private BooleanChannel(int id) {
+      this.id = id;
+    }
+
+    public void log(boolean value) {
+      ByteBuffer bb = claim();
+      if (bb == null) {
+        return;
+      }
+      bb.put((byte) (value ? 1 : 0));
+      commit(id, bb);
+    }
+  }
+
+  /** A logged struct. The value is packed immediately, so mutable objects may be reused. */
+  public static final class StructChannel<T> {
+    private final int id;
+    private final Struct<T> struct;
+
+    private StructChannel(int id, Struct<T> struct) {
+      this.id = id;
+      this.struct = struct;
+    }
+
+    public void log(T value) {
+      ByteBuffer bb = claim();
+      if (bb == null) {
+        return;
+      }
+      struct.pack(bb, value);
+      commit(id, bb);
+    }
+  }
+
+  /** A logged struct array of bounded length. Longer arrays are truncated. */
+  public static final class StructArrayChannel<T> {
+    private final int id;
+    private final Struct<T> struct;
+    private final int maxLength;
+
+    private StructArrayChannel(int id, Struct<T> struct, int maxLength) {
+      this.id = id;
+      this.struct = struct;
+      this.maxLength = maxLength;
+    }
+
+    public void log(T[] values) {
+      ByteBuffer bb = claim();
+      if (bb == null) {
+        return;
+      }
+      int length = Math.min(values.length, maxLength);
+      for (int i = 0; i < length; i++) {
+        struct.pack(bb, values[i]);
+      }
+      commit(id, bb);
+    }
+  }
+
+  public static DoubleChannel addDouble(String name) {
+    return new DoubleChannel(register(name, "double", 8));
+  }
+
+  public static BooleanChannel addBoolean(String name) {
+    return new BooleanChannel(register(name, "boolean", 1));
+  }
+
+  public static <T> StructChannel<T> addStruct(String name, Struct<T> struct) {
+    DataLogManager.getLog().addSchema(struct);
+    return new StructChannel<>(register(name, struct.getTypeString(), struct.getSize()), struct);
+  }
+
+  /** @param maxLength The longest array that will be logged; sizes the ring's slots */
+  public static <T> StructArrayChannel<T> addStructArray(String name, Struct<T> struct, int maxLength) {
+    DataLogManager.getLog().addSchema(struct);
+    return new StructArrayChannel<>(
+        register(name, struct.getTypeString() + "[]", struct.getSize() * maxLength), struct, maxLength);
+  }
+
+  private static int register(String name, String type, int payloadBytes) {
+    if (running) {
+      throw new IllegalStateException("Log channels must be registered before the logger starts");
+    }
+    entries.add(new RawLogEntry(DataLogManager.getLog(), name, "", type));
+    maxPayloadBytes = Math.max(maxPayloadBytes, payloadBytes);
+    return entries.size() - 1;
+  }
+
+  /** Allocates the ring, sized for the largest registered channel, and starts the writer thread. */
+  public static void start() {
+    if (running) {
+      return;
+    }
+    slotChannels = new int[QUEUE_CAPACITY];
+    slotTimestamps = new long[QUEUE_CAPACITY];
+    slotLengths = new int[QUEUE_CAPACITY];
+    slotPayloads = new byte[QUEUE_CAPACITY][maxPayloadBytes];
+    slotBuffers = new ByteBuffer[QUEUE_CAPACITY];
+    for (int i = 0; i < QUEUE_CAPACITY; i++) {
+      slotBuffers[i] = ByteBuffer.wrap(slotPayloads[i]).order(ByteOrder.LITTLE_ENDIAN);
+    }
+    running = true;
+    writer = new Thread(AsyncDataLogger::writeLoop, "AsyncDataLogger");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  // Returns the next free slot's buffer, cleared, or null (and counts a drop) if the ring is full
+  private static ByteBuffer claim() {
+    if (!running) {
+      return null;
+    }
+    long write = writeIndex.get();
+    if (write - readIndex.get() >= QUEUE_CAPACITY) {
+      droppedRecords.incrementAndGet();
+      return null;
+    }
+    ByteBuffer bb = slotBuffers[(int) (write % QUEUE_CAPACITY)];
+    bb.clear();
+    return bb;
+  }
+
+  private static void commit(int channel, ByteBuffer bb) {
+    long write = writeIndex.get();
+    int slot = (int) (write % QUEUE_CAPACITY);
+    slotChannels[slot] = channel;
+    slotTimestamps[slot] = WPIUtilJNI.now();
+    slotLengths[slot] = bb.position();
+    writeIndex.lazySet(write + 1);
+  }
+
+  // Runs on the writer thread
+  private static void writeLoop() {
+    while (running) {
+      long read = readIndex.get();
+      long write = writeIndex.get();
+      for (long i = read; i < write; i++) {
+        int slot = (int) (i % QUEUE_CAPACITY);
+        entries.get(slotChannels[slot]).append(slotPayloads[slot], 0, slotLengths[slot], slotTimestamps[slot]);
+      }
+      readIndex.lazySet(write);
+      writtenRecords.addAndGet(write - read);
+      LockSupport.parkNanos(WRITER_PERIOD_NANOS);
+    }
+  }
+
+  /** Records discarded because the ring was full. */
+  public static long getDroppedRecords() {
+    return droppedRecords.get();
+  }
+
+  /** Records handed to the DataLog by the writer thread. */
+  public static long getWrittenRecords() {
+    return writtenRecords.get();
+  }
+}
@@ -0,0 +1,176 @@
+package frc.lib;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import com.revrobotics.PersistMode;
+import com.revrobotics.REVLibError;
+import com.revrobotics.ResetMode;
+import com.revrobotics.spark.SparkBase;
+import com.revrobotics.spark.SparkFlex;
+import com.revrobotics.spark.config.SparkBaseConfig;
+import com.revrobotics.spark.config.SparkFlexConfig;
+import com.revrobotics.spark.config.SparkMaxConfig;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import frc.lib.CANSparkUtil.Usage;
+
+/**
+ * Switches Spark status frame rates with the robot mode, so each device only sends quickly what
+ * its owner needs right now.
+ *
+ * <p>Each device is registered with a default {@link Usage}, optionally a different usage per
+ * {@link Mode}, and optionally a usage for while it is active (e.g. the flywheel's velocity only
+ * matters while it spins). {@link #setMode} is called from the robot's mode inits and
+ * {@link #update} from {@code robotPeriodic()}; a device is reconfigured only when the usage it
+ * should have changes, without blocking the loop and without touching flash.
+ *
+ * <p>Devices whose frame rates never change (the swerve modules, whose encoder frames feed the
+ * odometry thread in every mode) set them once in their own config instead.
+ */
+public final class CANBandwidthManager {
+  public enum Mode {
+    DISABLED,
+    AUTONOMOUS,
+    TELEOP,
+    TEST
+  }
+
+  private static final List<Device> devices = new ArrayList<>();
+  private static Mode mode = Mode.DISABLED;
+  private static double estimatedFramesPerSecond = 0.0;
+
+  private CANBandwidthManager() {}
+
+  /** One Spark's frame profiles. */
+  public static final class Device {
+    private final String name;
+    private final SparkBase spark;
+    private final EnumMap<Mode, Usage> usageByMode = new EnumMap<>(Mode.class);
+    private Usage activeUsage;
+    private BooleanSupplier isActive;
+    private Usage applied;
+    private final CANBusLoad.Device load;
+
+    private Device(String name, SparkBase spark, Usage defaultUsage) {
+      this.name = name;
+      this.spark = spark;
+      for (Mode m : Mode.values()) {
+        usageByMode.put(m, defaultUsage);
+      }
+      load = CANBusLoad.register(name + " Spark (" + spark.getDeviceId() + ")");
+      declareWorstCase();
+    }
+
+    // The bus budget has to hold in every mode, so declare the busiest usage this device can have
+    private void declareWorstCase() {
+      Usage busiest = activeUsage;
+      for (Usage usage : usageByMode.values()) {
+        if (busiest == null || CANSparkUtil.getFramesPerSecond(usage) > CANSparkUtil.getFramesPerSecond(busiest)) {
+          busiest = usage;
+        }
+      }
+      CANSparkUtil.declareStatusFrames(load, busiest);
+    }
+
+    /**
+     * Uses different frame rates in one mode.
+     *
+     * @param mode The robot mode.
+     * @param usage The usage while in that mode.
+     * @return This device, for chaining.
+     */
+    public Device in(Mode mode, Usage usage) {
+      usageByMode.put(mode, usage);
+      declareWorstCase();
+      return this;
+    }
+
+    /**
+     * Uses different frame rates while the device is active and the robot is enabled, overriding
+     * the mode's usage.
+     *
+     * @param usage The usage while active.
+     * @param isActive Checked every {@link CANBandwidthManager#update}.
+     * @return This device, for chaining.
+     */
+    public Device whileActive(Usage usage, BooleanSupplier isActive) {
+      this.activeUsage = usage;
+      this.isActive = isActive;
+      declareWorstCase();
+      return this;
+    }
+
+    private Usage getDesiredUsage() {
+      if (isActive != null && mode != Mode.DISABLED && isActive.getAsBoolean()) {
+        return activeUsage;
+      }
+      return usageByMode.get(mode);
+    }
+
+    private void apply(Usage usage) {
+      SparkBaseConfig config = spark instanceof SparkFlex ? new SparkFlexConfig() : new SparkMaxConfig();
+      CANSparkUtil.setStatusFrames(config, usage);
+      REVLibError error = spark.configureAsync(config, ResetMode.kNoResetSafeParameters, PersistMode.kNoPersistParameters);
+      if (error != REVLibError.kOk) {
+        DriverStation.reportWarning("Failed to set " + name + " status frames to " + usage + ": " + error, false);
+      }
+      // Recorded even on failure so a missing device warns once per change instead of every loop
+      applied = usage;
+    }
+  }
+
+  /**
+   * Starts managing a Spark's status frames. Its frames are set on the next {@link #update}.
+   *
+   * @param name Used in warnings.
+   * @param spark The controller.
+   * @param defaultUsage The usage in every mode not set with {@link Device#in}.
+   * @return The device, to add per-mode and active usages to.
+   */
+  public static Device register(String name, SparkBase spark, Usage defaultUsage) {
+    Device device = new Device(name, spark, defaultUsage);
+    devices.add(device);
+    return device;
+  }
+
+  /**
+   * Switches every device to the new mode's frame rates on the next {@link #update}.
+   *
+   * @param newMode The mode the robot just entered.
+   */
+  public static void setMode(Mode newMode) {
+    mode = newMode;
+  }
+
+  public static Mode getMode() {
+    return mode;
+  }
+
+  /** Reconfigures the devices whose usage changed. Call once per loop. */
+  public static void update() {
+    double framesPerSecond = 0.0;
+    for (Device device : devices) {
+      Usage desired = device.getDesiredUsage();
+      if (desired != device.applied) {
+        device.apply(desired);
+      }
+      if (device.applied != null) {
+        framesPerSecond += CANSparkUtil.getFramesPerSecond(device.applied);
+      }
+    }
+    estimatedFramesPerSecond = framesPerSecond;
+  }
+
+  /** @return Frames per second the managed Sparks send with their current profiles. */
+  public static double getEstimatedFramesPerSecond() {
+    return estimatedFramesPerSecond;
+  }
+
+  /** @return Share of a 1 Mbit/s bus the managed Sparks use with their current profiles, 0-100. */
+  public static double getEstimatedBusLoadPercent() {
+    return CANBusLoad.getUtilizationPercent(estimatedFramesPerSecond);
+  }
+}
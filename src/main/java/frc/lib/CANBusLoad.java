@@ -0,0 +1,149 @@
+package frc.lib;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.DriverStation;
+
+/**
+ * Every CAN device's periodic frames, declared where the device is configured, and the bus load
+ * they add up to.
+ *
+ * <p>Frame periods are set in many constructors (Spark signal configs, Phoenix
+ * {@code setUpdateFrequency} calls), so the only place they can all be seen together is here.
+ * Each device registers itself and declares the frames it sends on its own and how often;
+ * {@link #checkBudget} is called once the robot is built and reports an error when the total
+ * is over the budget, along with a per-device breakdown in the log. CANBusLoadTest builds the
+ * robot in simulation and fails the build when its declared frames don't fit the budget.
+ *
+ * <p>Load assumes every frame is an extended-ID frame with 8 data bytes on a 1 Mbit/s bus, so it
+ * slightly overestimates frames with fewer bytes. Frames a device only sends when asked are not
+ * counted.
+ */
+public final class CANBusLoad {
+  // Bits on the wire for an extended-ID frame with 8 data bytes, including typical bit stuffing
+  static final double BITS_PER_FRAME = 135;
+  static final double BUS_BITS_PER_SECOND = 1_000_000;
+
+  private static final List<Device> devices = new ArrayList<>();
+
+  private CANBusLoad() {}
+
+  /** One device's declared frames. */
+  public static final class Device {
+    private final String name;
+    private final List<String> frameNames = new ArrayList<>();
+    private final List<Double> framePeriodsMs = new ArrayList<>();
+
+    private Device(String name) {
+      this.name = name;
+    }
+
+    /**
+     * Declares a frame the device sends periodically.
+     *
+     * @param frame What the frame carries, for the log.
+     * @param periodMs How often it is sent. Zero or less means it is not sent.
+     * @return This device, for chaining.
+     */
+    public synchronized Device frame(String frame, double periodMs) {
+      frameNames.add(frame);
+      framePeriodsMs.add(periodMs);
+      return this;
+    }
+
+    /** Forgets every declared frame, for devices whose frame periods change at runtime. */
+    public synchronized void clear() {
+      frameNames.clear();
+      framePeriodsMs.clear();
+    }
+
+    /** @return Frames per second from every declared frame. */
+    public synchronized double getFramesPerSecond() {
+      double framesPerSecond = 0.0;
+      for (double periodMs : framePeriodsMs) {
+        if (periodMs > 0) {
+          framesPerSecond += 1000.0 / periodMs;
+        }
+      }
+      return framesPerSecond;
+    }
+
+    private synchronized String describe() {
+      StringBuilder description = new StringBuilder(String.format("%s: %.0f frames/s", name, getFramesPerSecond()));
+      for (int i = 0; i < frameNames.size(); i++) {
+        description.append(String.format(", %s %.0f ms", frameNames.get(i), framePeriodsMs.get(i)));
+      }
+      return description.toString();
+    }
+  }
+
+  /**
+   * Adds a device. Safe to call from several threads at once.
+   *
+   * @param name Identifies the device in the log, e.g. "Mod 0 Angle Spark (12)".
+   * @return The device, to declare frames on.
+   */
+  public static Device register(String name) {
+    Device device = new Device(name);
+    synchronized (devices) {
+      devices.add(device);
+    }
+    return device;
+  }
+
+  /** Removes a device, so a test's own devices don't count toward the robot's load. */
+  static void unregister(Device device) {
+    synchronized (devices) {
+      devices.remove(device);
+    }
+  }
+
+  /** @return Frames per second from every registered device. */
+  public static double getFramesPerSecond() {
+    double framesPerSecond = 0.0;
+    synchronized (devices) {
+      for (Device device : devices) {
+        framesPerSecond += device.getFramesPerSecond();
+      }
+    }
+    return framesPerSecond;
+  }
+
+  /** @return Estimated bus utilization from every registered device, 0-100. */
+  public static double getUtilizationPercent() {
+    return getUtilizationPercent(getFramesPerSecond());
+  }
+
+  /**
+   * @param framesPerSecond Frames sent per second.
+   * @return Share of the bus those frames use, 0-100.
+   */
+  public static double getUtilizationPercent(double framesPerSecond) {
+    return framesPerSecond * BITS_PER_FRAME / BUS_BITS_PER_SECOND * 100.0;
+  }
+
+  /**
+   * Logs every device's frames and the total, and reports an error if the total is over budget.
+   *
+   * @param budgetPercent Highest acceptable utilization, 0-100.
+   * @return true if the declared load fits the budget.
+   */
+  public static boolean checkBudget(double budgetPercent) {
+    double utilization = getUtilizationPercent();
+    synchronized (devices) {
+      for (Device device : devices) {
+        DataLogManager.log("CAN " + device.describe());
+      }
+    }
+    String summary = String.format("CAN declared load %.1f%% (%.0f frames/s), budget %.1f%%",
+        utilization, getFramesPerSecond(), budgetPercent);
+    DataLogManager.log(summary);
+    if (utilization > budgetPercent) {
+      DriverStation.reportError(summary, false);
+      return false;
+    }
+    return true;
+  }
+}
@@ -71,4 +71,115 @@ public class CANSparkUtil {
   public static void setSparkBusUsage( SparkBaseConfig config, Usage usage) {
     setSparkBusUsage( config, usage, false);
   }
+
+  // Faults and warnings share one frame and are only needed for diagnostics
+  private static final int FAULTS_PERIOD_MS = 250;
+  // Period for frames a usage doesn't need, as slow as the firmware allows without going silent
+  private static final int SLOW_PERIOD_MS = 500;
+
+  /**
+   * Sets the periods of the frames a Spark sends on its own: the status frame (applied output,
+   * bus voltage, current and temperature), the faults frame, and the primary encoder frame.
+   * Unlike {@link #setSparkBusUsage}, which only touches the analog sensor frames, this changes
+   * the frames subsystems actually read through {@code getEncoder()} and {@code get()}.
+   *
+   * <p>Primary encoder position and velocity travel in the same frame, so it is sent at the
+   * faster of the two periods.
+   *
+   * @param config The config to set the periods on.
+   * @param usage The data the device's owner needs quickly.
+   */
+  public static void setStatusFrames(SparkBaseConfig config, Usage usage) {
+    int statusPeriodMs = getStatusPeriodMs(usage);
+    config.signals
+        .appliedOutputPeriodMs(statusPeriodMs)
+        .busVoltagePeriodMs(statusPeriodMs)
+        .outputCurrentPeriodMs(statusPeriodMs)
+        .motorTemperaturePeriodMs(statusPeriodMs)
+        .faultsPeriodMs(FAULTS_PERIOD_MS)
+        .warningsPeriodMs(FAULTS_PERIOD_MS)
+        .primaryEncoderPositionPeriodMs(
+            usage == Usage.kVelocityOnly ? SLOW_PERIOD_MS : getEncoderPeriodMs(usage))
+        .primaryEncoderVelocityPeriodMs(
+            usage == Usage.kPositionOnly ? SLOW_PERIOD_MS : getEncoderPeriodMs(usage));
+  }
+
+  /**
+   * Estimates how many frames per second a Spark sends after {@link #setStatusFrames}.
+   *
+   * @param usage The usage the frames were set for.
+   * @return Status, faults and primary encoder frames per second.
+   */
+  public static double getFramesPerSecond(Usage usage) {
+    return 1000.0 / getStatusPeriodMs(usage)
+        + 1000.0 / FAULTS_PERIOD_MS
+        + 1000.0 / getEncoderPeriodMs(usage);
+  }
+
+  // Status frame period for Sparks set up with setSparkBusUsage. It only slows applied output,
+  // which shares the frame with bus voltage, current and temperature, so those set the period
+  private static final int BUS_USAGE_STATUS_PERIOD_MS = 10;
+
+  /**
+   * Sets the status, faults and primary encoder position periods that
+   * {@link #declareSparkBusUsage} declares, for Sparks set up with {@link #setSparkBusUsage}, so
+   * the declared load doesn't depend on firmware defaults.
+   *
+   * @param config The config to set the periods on.
+   * @param encoderPeriodMs The primary encoder position period.
+   */
+  public static void setSparkBusPeriods(SparkBaseConfig config, int encoderPeriodMs) {
+    config.signals
+        .busVoltagePeriodMs(BUS_USAGE_STATUS_PERIOD_MS)
+        .outputCurrentPeriodMs(BUS_USAGE_STATUS_PERIOD_MS)
+        .motorTemperaturePeriodMs(BUS_USAGE_STATUS_PERIOD_MS)
+        .faultsPeriodMs(FAULTS_PERIOD_MS)
+        .warningsPeriodMs(FAULTS_PERIOD_MS)
+        .primaryEncoderPositionPeriodMs(encoderPeriodMs);
+  }
+
+  /**
+   * Declares the frames a Spark sends after {@link #setStatusFrames}, replacing any it declared
+   * before.
+   *
+   * @param device The Spark's entry in {@link CANBusLoad}.
+   * @param usage The usage the frames were set for.
+   */
+  public static void declareStatusFrames(CANBusLoad.Device device, Usage usage) {
+    device.clear();
+    device.frame("Status", getStatusPeriodMs(usage))
+        .frame("Faults", FAULTS_PERIOD_MS)
+        .frame("Encoder", getEncoderPeriodMs(usage));
+  }
+
+  /**
+   * Declares the frames a Spark sends after {@link #setSparkBusUsage} and
+   * {@link #setSparkBusPeriods}. Analog frames aren't counted since they're only sent once the
+   * analog sensor is read.
+   *
+   * @param device The Spark's entry in {@link CANBusLoad}.
+   * @param encoderPeriodMs The period passed to {@link #setSparkBusPeriods}.
+   */
+  public static void declareSparkBusUsage(CANBusLoad.Device device, int encoderPeriodMs) {
+    device.frame("Status", BUS_USAGE_STATUS_PERIOD_MS)
+        .frame("Faults", FAULTS_PERIOD_MS)
+        .frame("Encoder", encoderPeriodMs);
+  }
+
+  private static int getStatusPeriodMs(Usage usage) {
+    switch (usage) {
+      case kAll:
+        return 20;
+      case kPositionOnly:
+      case kVelocityOnly:
+        return 100;
+      default:
+        return SLOW_PERIOD_MS;
+    }
+  }
+
+  // The faster of the position and velocity periods, since they share the encoder frame
+  private static int getEncoderPeriodMs(Usage usage) {
+    return usage == Usage.kMinimal ? SLOW_PERIOD_MS : 20;
+  }
 }
\ No newline at end of file
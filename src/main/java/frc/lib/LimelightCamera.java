@@ -0,0 +1,126 @@
+package frc.lib;
+
+import frc.lib.LimelightHelpers.MutablePoseEstimate;
+import frc.lib.Telemetry.Rate;
+import frc.lib.Telemetry.Tier;
+
+/**
+ * Collects the new MegaTag2 frames from one Limelight each loop.
+ *
+ * <p>The camera runs faster than the 50 Hz robot loop, so frames are read through a queued NT
+ * subscriber and every frame published since the last poll is kept. The robot loop also runs
+ * whether or not the camera has produced a new frame; this remembers the NT timestamp of the
+ * last frame it returned and drops anything not newer, so the pose estimator never gets the
+ * same frame twice.
+ *
+ * <p>Frames are parsed into a pool of {@link MutablePoseEstimate}s owned by this camera, so
+ * polling does not allocate pose objects. A frame returned by {@link #next()} is only valid
+ * until the next {@link #poll()}.
+ */
+public class LimelightCamera {
+  private final String name;
+  private final VisionTrustModel trustModel;
+  private double lastTimestampSeconds = Double.NEGATIVE_INFINITY;
+
+  // New frames from the last poll, oldest first, and how many of them have been consumed
+  private final MutablePoseEstimate[] frames = new MutablePoseEstimate[LimelightHelpers.MAX_QUEUED_FRAMES];
+  private int frameCount = 0;
+  private int cursor = 0;
+
+  // Counters and the newest frame's details, published as one struct
+  private final VisionFrameSummary summary = new VisionFrameSummary();
+  private final AsyncDataLogger.StructChannel<VisionFrameSummary> summaryLog;
+
+  /**
+   * @param name The Limelight's NetworkTables name, e.g. "limelight-a"
+   * @param trustCoefficients How much to trust this camera's frames
+   */
+  public LimelightCamera(String name, VisionTrustModel.Coefficients trustCoefficients) {
+    this.name = name;
+    this.trustModel = new VisionTrustModel(trustCoefficients);
+    Telemetry.addStruct(name + " Summary", VisionFrameSummary.struct, Rate.CONTROL, Tier.COMPETITION, () -> summary);
+    summaryLog = AsyncDataLogger.addStruct("Vision/" + name, VisionFrameSummary.struct);
+    for (int i = 0; i < frames.length; i++) {
+      frames[i] = new MutablePoseEstimate();
+    }
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public VisionTrustModel getTrustModel() {
+    return trustModel;
+  }
+
+  /**
+   * Reads every MegaTag2 frame the camera published since the last poll and keeps the ones
+   * newer than anything already returned. Read them with {@link #peek()} and {@link #next()}.
+   *
+   * @return The number of new frames
+   */
+  public int poll() {
+    int queued = LimelightHelpers.getBotPoseEstimates_wpiBlue_MegaTag2_Queued(name, frames);
+    frameCount = 0;
+    cursor = 0;
+    for (int i = 0; i < queued; i++) {
+      summary.framesReceived++;
+      MutablePoseEstimate estimate = frames[i];
+      if (estimate.timestampSeconds <= lastTimestampSeconds) {
+        summary.framesDeduplicated++;
+        continue;
+      }
+      lastTimestampSeconds = estimate.timestampSeconds;
+      // Compact new frames to the front of the pool by swapping references
+      frames[i] = frames[frameCount];
+      frames[frameCount++] = estimate;
+    }
+    summary.framesThisLoop = frameCount;
+    return frameCount;
+  }
+
+  /** @return The oldest unconsumed frame from the last poll, or null if there are none left */
+  public MutablePoseEstimate peek() {
+    return cursor < frameCount ? frames[cursor] : null;
+  }
+
+  /** @return The oldest unconsumed frame from the last poll and consumes it, or null */
+  public MutablePoseEstimate next() {
+    if (cursor >= frameCount) {
+      return null;
+    }
+    MutablePoseEstimate estimate = frames[cursor++];
+    summary.timestampSeconds = estimate.timestampSeconds;
+    summary.tagCount = estimate.tagCount;
+    summary.avgTagDist = estimate.avgTagDist;
+    return estimate;
+  }
+
+  /**
+   * Call when a polled frame was added to the pose estimator.
+   *
+   * @param xyStdDev The x/y standard deviation the frame was added with
+   */
+  public void markApplied(double xyStdDev) {
+    summary.framesApplied++;
+    summary.xyStdDev = xyStdDev;
+  }
+
+  /** Call when a polled frame failed the acceptance checks. */
+  public void markRejected() {
+    summary.framesRejected++;
+  }
+
+  /** Writes this loop's summary to the on-robot log. Call once per loop after the frames are consumed. */
+  public void logSummary() {
+    summaryLog.log(summary);
+  }
+
+  /**
+   * Records how far a frame's pose was from where odometry thought the robot was when the
+   * frame was captured, in meters.
+   */
+  public void setOdometryError(double errorMeters) {
+    summary.odometryError = errorMeters;
+  }
+}
@@ -3,9 +3,14 @@
 package frc.lib;
 
 import edu.wpi.first.networktables.DoubleArrayEntry;
+import edu.wpi.first.networktables.DoubleArraySubscriber;
+import edu.wpi.first.networktables.DoubleEntry;
 import edu.wpi.first.networktables.NetworkTable;
 import edu.wpi.first.networktables.NetworkTableEntry;
 import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.PubSubOption;
+import edu.wpi.first.networktables.StringArrayEntry;
+import edu.wpi.first.networktables.StringEntry;
 import edu.wpi.first.networktables.TimestampedDoubleArray;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Pose3d;
@@ -19,6 +24,7 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.function.BiFunction;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonFormat.Shape;
@@ -35,7 +41,23 @@ import edu.wpi.first.net.PortForwarder;
  */
 public class LimelightHelpers {
 
-    private static final Map<String, DoubleArrayEntry> doubleArrayEntries = new ConcurrentHashMap<>();
+    /*
+     * Typed NetworkTables entries, cached per camera and then per entry name. Looking a cached
+     * entry up is two map reads with no string building, instead of a table lookup and a
+     * generic entry lookup on every call.
+     */
+    private static final Map<String, Map<String, NetworkTableEntry>> genericEntries = new ConcurrentHashMap<>();
+    private static final Map<String, Map<String, DoubleEntry>> doubleEntries = new ConcurrentHashMap<>();
+    private static final Map<String, Map<String, DoubleArrayEntry>> doubleArrayEntries = new ConcurrentHashMap<>();
+    private static final Map<String, Map<String, StringEntry>> stringEntries = new ConcurrentHashMap<>();
+    private static final Map<String, Map<String, StringArrayEntry>> stringArrayEntries = new ConcurrentHashMap<>();
+    private static final Map<String, Map<String, DoubleArraySubscriber>> queuedDoubleArraySubscribers = new ConcurrentHashMap<>();
+
+    /**
+     * How many frames a queued subscriber keeps between polls. Limelights publish well under
+     * 100 fps, so this covers several missed robot loops.
+     */
+    public static final int MAX_QUEUED_FRAMES = 20;
 
     /**
      * Represents a Color/Retroreflective Target Result extracted from JSON Output
@@ -627,6 +649,59 @@ public class LimelightHelpers {
 
     }
 
+    /**
+     * A reusable, caller-owned pose estimate. Parsing into one of these writes primitive fields
+     * and refills a preallocated pool of {@link RawFiducial}s instead of creating a new
+     * Pose2d, Rotation2d, PoseEstimate and fiducial array every frame.
+     */
+    public static class MutablePoseEstimate {
+        public double x;
+        public double y;
+        public double yawRadians;
+        public double timestampSeconds;
+        public double latency;
+        public int tagCount;
+        public double tagSpan;
+        public double avgTagDist;
+        public double avgTagArea;
+        public boolean isMegaTag2;
+
+        /** Pool of fiducials; only the first {@link #fiducialCount} are valid. */
+        public RawFiducial[] rawFiducials;
+        public int fiducialCount;
+
+        /**
+         * @param fiducialCapacity How many fiducials to preallocate. The pool grows if a frame
+         *     sees more tags than this.
+         */
+        public MutablePoseEstimate(int fiducialCapacity) {
+            rawFiducials = new RawFiducial[fiducialCapacity];
+            for (int i = 0; i < fiducialCapacity; i++) {
+                rawFiducials[i] = new RawFiducial(0, 0, 0, 0, 0, 0, 0);
+            }
+        }
+
+        public MutablePoseEstimate() {
+            this(16);
+        }
+
+        /** Creates a Pose2d from this estimate. Allocates; call only for frames you use. */
+        public Pose2d toPose2d() {
+            return new Pose2d(x, y, new Rotation2d(yawRadians));
+        }
+
+        private void ensureFiducialCapacity(int count) {
+            if (count <= rawFiducials.length) {
+                return;
+            }
+            RawFiducial[] grown = Arrays.copyOf(rawFiducials, count);
+            for (int i = rawFiducials.length; i < count; i++) {
+                grown[i] = new RawFiducial(0, 0, 0, 0, 0, 0, 0);
+            }
+            rawFiducials = grown;
+        }
+    }
+
     /**
      * Encapsulates the state of an internal Limelight IMU.
      */
@@ -760,9 +835,114 @@ public class LimelightHelpers {
         DoubleArrayEntry poseEntry = LimelightHelpers.getLimelightDoubleArrayEntry(limelightName, entryName);
         
         TimestampedDoubleArray tsValue = poseEntry.getAtomic();
-        double[] poseArray = tsValue.value;
-        long timestamp = tsValue.timestamp;
-        
+        return parsePoseEstimate(tsValue.value, tsValue.timestamp, isMegaTag2);
+    }
+
+    /**
+     * Gets every pose estimate published to a botpose topic since the last call, oldest first.
+     * Unlike {@link #getBotPoseEstimate(String, String, boolean)}, frames published between two
+     * robot loops are not lost.
+     */
+    private static PoseEstimate[] getBotPoseEstimatesQueued(String limelightName, String entryName, boolean isMegaTag2) {
+        TimestampedDoubleArray[] frames =
+            LimelightHelpers.getLimelightQueuedDoubleArraySubscriber(limelightName, entryName).readQueue();
+
+        int validFrames = 0;
+        PoseEstimate[] estimates = new PoseEstimate[frames.length];
+        for (TimestampedDoubleArray frame : frames) {
+            PoseEstimate estimate = parsePoseEstimate(frame.value, frame.timestamp, isMegaTag2);
+            if (estimate != null) {
+                estimates[validFrames++] = estimate;
+            }
+        }
+        return validFrames == estimates.length ? estimates : Arrays.copyOf(estimates, validFrames);
+    }
+
+    /**
+     * Parses a raw botpose array into a caller-owned estimate without allocating.
+     *
+     * @param poseArray The botpose double array as published by the Limelight
+     * @param timestamp The NT server timestamp of the array in microseconds
+     * @param isMegaTag2 Whether the array came from a MegaTag2 topic
+     * @param out Receives the parsed values
+     * @return false if the array is empty, in which case out is left unchanged
+     */
+    public static boolean parsePoseEstimate(double[] poseArray, long timestamp, boolean isMegaTag2, MutablePoseEstimate out) {
+        if (poseArray.length == 0) {
+            return false;
+        }
+
+        if (poseArray.length >= 6) {
+            out.x = poseArray[0];
+            out.y = poseArray[1];
+            out.yawRadians = Units.degreesToRadians(poseArray[5]);
+        } else {
+            out.x = 0;
+            out.y = 0;
+            out.yawRadians = 0;
+        }
+        out.latency = extractArrayEntry(poseArray, 6);
+        out.tagCount = (int)extractArrayEntry(poseArray, 7);
+        out.tagSpan = extractArrayEntry(poseArray, 8);
+        out.avgTagDist = extractArrayEntry(poseArray, 9);
+        out.avgTagArea = extractArrayEntry(poseArray, 10);
+        out.isMegaTag2 = isMegaTag2;
+
+        // Convert server timestamp from microseconds to seconds and adjust for latency
+        out.timestampSeconds = (timestamp / 1000000.0) - (out.latency / 1000.0);
+
+        int valsPerFiducial = 7;
+        int expectedTotalVals = 11 + valsPerFiducial * out.tagCount;
+        if (poseArray.length != expectedTotalVals) {
+            // Array size mismatch - report no fiducials instead of partial data
+            out.fiducialCount = 0;
+            return true;
+        }
+
+        out.ensureFiducialCapacity(out.tagCount);
+        out.fiducialCount = out.tagCount;
+        for (int i = 0; i < out.tagCount; i++) {
+            int baseIndex = 11 + (i * valsPerFiducial);
+            RawFiducial fiducial = out.rawFiducials[i];
+            fiducial.id = (int)poseArray[baseIndex];
+            fiducial.txnc = poseArray[baseIndex + 1];
+            fiducial.tync = poseArray[baseIndex + 2];
+            fiducial.ta = poseArray[baseIndex + 3];
+            fiducial.distToCamera = poseArray[baseIndex + 4];
+            fiducial.distToRobot = poseArray[baseIndex + 5];
+            fiducial.ambiguity = poseArray[baseIndex + 6];
+        }
+        return true;
+    }
+
+    /**
+     * Reads every frame queued on a botpose topic into caller-owned estimates, oldest first.
+     * If more frames are queued than out can hold, the oldest ones are skipped.
+     *
+     * @return The number of estimates written to out
+     */
+    private static int getBotPoseEstimatesQueued(String limelightName, String entryName, boolean isMegaTag2, MutablePoseEstimate[] out) {
+        TimestampedDoubleArray[] frames =
+            LimelightHelpers.getLimelightQueuedDoubleArraySubscriber(limelightName, entryName).readQueue();
+
+        int count = 0;
+        for (int i = Math.max(0, frames.length - out.length); i < frames.length; i++) {
+            if (parsePoseEstimate(frames[i].value, frames[i].timestamp, isMegaTag2, out[count])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Converts a raw botpose array into a PoseEstimate.
+     *
+     * @param poseArray The botpose double array as published by the Limelight
+     * @param timestamp The NT server timestamp of the array in microseconds
+     * @param isMegaTag2 Whether the array came from a MegaTag2 topic
+     * @return The estimate, or null if the array is empty
+     */
+    static PoseEstimate parsePoseEstimate(double[] poseArray, long timestamp, boolean isMegaTag2) {
         if (poseArray.length == 0) {
             // Handle the case where no data is available
             return null; // or some default PoseEstimate
@@ -810,8 +990,8 @@ public class LimelightHelpers {
      * @return Array of RawFiducial objects containing detection details
      */
     public static RawFiducial[] getRawFiducials(String limelightName) {
-        var entry = LimelightHelpers.getLimelightNTTableEntry(limelightName, "rawfiducials");
-        var rawFiducialArray = entry.getDoubleArray(new double[0]);
+        var entry = LimelightHelpers.getLimelightDoubleArrayEntry(limelightName, "rawfiducials");
+        var rawFiducialArray = entry.get();
         int valsPerEntry = 7;
         if (rawFiducialArray.length % valsPerEntry != 0) {
             return new RawFiducial[0];
@@ -843,8 +1023,8 @@ public class LimelightHelpers {
      * @return Array of RawDetection objects containing detection details
      */
     public static RawDetection[] getRawDetections(String limelightName) {
-        var entry = LimelightHelpers.getLimelightNTTableEntry(limelightName, "rawdetections");
-        var rawDetectionArray = entry.getDoubleArray(new double[0]);
+        var entry = LimelightHelpers.getLimelightDoubleArrayEntry(limelightName, "rawdetections");
+        var rawDetectionArray = entry.get();
         int valsPerEntry = 12;
         if (rawDetectionArray.length % valsPerEntry != 0) {
             return new RawDetection[0];
@@ -882,8 +1062,8 @@ public class LimelightHelpers {
      * @return Array of RawTarget objects containing up to 3 contours
      */
     public static RawTarget[] getRawTargets(String limelightName) {
-        var entry = LimelightHelpers.getLimelightNTTableEntry(limelightName, "rawtargets");
-        var rawTargetArray = entry.getDoubleArray(new double[0]);
+        var entry = LimelightHelpers.getLimelightDoubleArrayEntry(limelightName, "rawtargets");
+        var rawTargetArray = entry.get();
         int valsPerEntry = 3;
         if (rawTargetArray.length % valsPerEntry != 0) {
             return new RawTarget[0];
@@ -970,41 +1150,84 @@ public class LimelightHelpers {
         NetworkTableInstance.getDefault().flush();
     }
 
+    /**
+     * Gets a cached entry, creating it with the factory the first time a camera/entry pair is
+     * requested. The fast path does not allocate.
+     */
+    private static <T> T getCachedEntry(Map<String, Map<String, T>> cache, String tableName, String entryName,
+            BiFunction<NetworkTable, String, T> factory) {
+        String sanitizedName = sanitizeName(tableName);
+        Map<String, T> tableEntries = cache.get(sanitizedName);
+        if (tableEntries == null) {
+            tableEntries = cache.computeIfAbsent(sanitizedName, k -> new ConcurrentHashMap<>());
+        }
+        T entry = tableEntries.get(entryName);
+        if (entry == null) {
+            entry = tableEntries.computeIfAbsent(entryName, k -> factory.apply(getLimelightNTTable(sanitizedName), k));
+        }
+        return entry;
+    }
+
     public static NetworkTableEntry getLimelightNTTableEntry(String tableName, String entryName) {
-        return getLimelightNTTable(tableName).getEntry(entryName);
+        return getCachedEntry(genericEntries, tableName, entryName, NetworkTable::getEntry);
+    }
+
+    public static DoubleEntry getLimelightDoubleEntry(String tableName, String entryName) {
+        return getCachedEntry(doubleEntries, tableName, entryName,
+            (table, name) -> table.getDoubleTopic(name).getEntry(0.0));
     }
 
     public static DoubleArrayEntry getLimelightDoubleArrayEntry(String tableName, String entryName) {
-        String key = tableName + "/" + entryName;
-        return doubleArrayEntries.computeIfAbsent(key, k -> {
-            NetworkTable table = getLimelightNTTable(tableName);
-            return table.getDoubleArrayTopic(entryName).getEntry(new double[0]);
-        });
+        return getCachedEntry(doubleArrayEntries, tableName, entryName,
+            (table, name) -> table.getDoubleArrayTopic(name).getEntry(new double[0]));
     }
-    
+
+    public static StringEntry getLimelightStringEntry(String tableName, String entryName) {
+        return getCachedEntry(stringEntries, tableName, entryName,
+            (table, name) -> table.getStringTopic(name).getEntry(""));
+    }
+
+    public static StringArrayEntry getLimelightStringArrayEntry(String tableName, String entryName) {
+        return getCachedEntry(stringArrayEntries, tableName, entryName,
+            (table, name) -> table.getStringArrayTopic(name).getEntry(new String[0]));
+    }
+
+    /**
+     * Gets a subscriber that queues every value published to a double array topic, so
+     * {@code readQueue()} returns all of them instead of only the newest. Subscribers are
+     * created on first use and cached; values published before that are not seen.
+     */
+    public static DoubleArraySubscriber getLimelightQueuedDoubleArraySubscriber(String tableName, String entryName) {
+        return getCachedEntry(queuedDoubleArraySubscribers, tableName, entryName,
+            (table, name) -> table.getDoubleArrayTopic(name).subscribe(
+                new double[0],
+                PubSubOption.keepDuplicates(true),
+                PubSubOption.pollStorage(MAX_QUEUED_FRAMES)));
+    }
+
     public static double getLimelightNTDouble(String tableName, String entryName) {
-        return getLimelightNTTableEntry(tableName, entryName).getDouble(0.0);
+        return getLimelightDoubleEntry(tableName, entryName).get();
     }
 
     public static void setLimelightNTDouble(String tableName, String entryName, double val) {
-        getLimelightNTTableEntry(tableName, entryName).setDouble(val);
+        getLimelightDoubleEntry(tableName, entryName).set(val);
     }
 
     public static void setLimelightNTDoubleArray(String tableName, String entryName, double[] val) {
-        getLimelightNTTableEntry(tableName, entryName).setDoubleArray(val);
+        getLimelightDoubleArrayEntry(tableName, entryName).set(val);
     }
 
     public static double[] getLimelightNTDoubleArray(String tableName, String entryName) {
-        return getLimelightNTTableEntry(tableName, entryName).getDoubleArray(new double[0]);
+        return getLimelightDoubleArrayEntry(tableName, entryName).get();
     }
 
 
     public static String getLimelightNTString(String tableName, String entryName) {
-        return getLimelightNTTableEntry(tableName, entryName).getString("");
+        return getLimelightStringEntry(tableName, entryName).get();
     }
 
     public static String[] getLimelightNTStringArray(String tableName, String entryName) {
-        return getLimelightNTTableEntry(tableName, entryName).getStringArray(new String[0]);
+        return getLimelightStringArrayEntry(tableName, entryName).get();
     }
 
 
@@ -1394,6 +1617,57 @@ public class LimelightHelpers {
         return getBotPoseEstimate(limelightName, "botpose_orb_wpiblue", true);
     }
 
+    /**
+     * Gets every MegaTag1 pose estimate the Limelight published since the last call, oldest first,
+     * in the WPILib Blue alliance coordinate system.
+     * 
+     * @param limelightName
+     * @return Estimates in publish order; empty if nothing new arrived
+     */
+    public static PoseEstimate[] getBotPoseEstimates_wpiBlue_Queued(String limelightName) {
+        return getBotPoseEstimatesQueued(limelightName, "botpose_wpiblue", false);
+    }
+
+    /**
+     * Gets every MegaTag2 pose estimate the Limelight published since the last call, oldest first,
+     * in the WPILib Blue alliance coordinate system. Use this instead of
+     * {@link #getBotPoseEstimate_wpiBlue_MegaTag2(String)} to avoid losing frames the camera
+     * publishes faster than the robot loop polls.
+     * Make sure you are calling setRobotOrientation() before calling this method.
+     * 
+     * @param limelightName
+     * @return Estimates in publish order; empty if nothing new arrived
+     */
+    public static PoseEstimate[] getBotPoseEstimates_wpiBlue_MegaTag2_Queued(String limelightName) {
+        return getBotPoseEstimatesQueued(limelightName, "botpose_orb_wpiblue", true);
+    }
+
+    /**
+     * Same as {@link #getBotPoseEstimate_wpiBlue_MegaTag2(String)}, but parses into a caller-owned
+     * estimate instead of allocating a new one.
+     * 
+     * @param limelightName
+     * @param out Receives the newest estimate
+     * @return false if the Limelight has published no data
+     */
+    public static boolean getBotPoseEstimate_wpiBlue_MegaTag2(String limelightName, MutablePoseEstimate out) {
+        TimestampedDoubleArray tsValue =
+            getLimelightDoubleArrayEntry(limelightName, "botpose_orb_wpiblue").getAtomic();
+        return parsePoseEstimate(tsValue.value, tsValue.timestamp, true, out);
+    }
+
+    /**
+     * Same as {@link #getBotPoseEstimates_wpiBlue_MegaTag2_Queued(String)}, but parses into
+     * caller-owned estimates. Size out to {@link #MAX_QUEUED_FRAMES} to never skip a frame.
+     * 
+     * @param limelightName
+     * @param out Pool of estimates to fill, oldest first
+     * @return The number of estimates written to out
+     */
+    public static int getBotPoseEstimates_wpiBlue_MegaTag2_Queued(String limelightName, MutablePoseEstimate[] out) {
+        return getBotPoseEstimatesQueued(limelightName, "botpose_orb_wpiblue", true, out);
+    }
+
     /**
      * Gets the Pose2d for easy use with Odometry vision pose estimator
      * (addVisionMeasurement)
@@ -1751,6 +2025,15 @@ public class LimelightHelpers {
      * @return LimelightResults object containing all current target data
      */
     public static LimelightResults getLatestResults(String limelightName) {
+        return parseResults(getJSONDump(limelightName));
+    }
+
+    /**
+     * Parses a Limelight JSON results dump.
+     * @param json The contents of the "json" NetworkTables entry
+     * @return LimelightResults object, with error set if the JSON could not be parsed
+     */
+    static LimelightResults parseResults(String json) {
 
         long start = System.nanoTime();
         LimelightHelpers.LimelightResults results = new LimelightHelpers.LimelightResults();
@@ -1759,7 +2042,7 @@ public class LimelightHelpers {
         }
 
         try {
-            results = mapper.readValue(getJSONDump(limelightName), LimelightResults.class);
+            results = mapper.readValue(json, LimelightResults.class);
         } catch (JsonProcessingException e) {
             results.error = "lljson error: " + e.getMessage();
         }
@@ -0,0 +1,49 @@
+package frc.lib;
+
+import edu.wpi.first.networktables.DoubleArrayEntry;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.NetworkTablesJNI;
+
+/**
+ * Sends the robot's heading to several Limelights for MegaTag2 with a single NetworkTables flush.
+ *
+ * <p>{@code LimelightHelpers.SetRobotOrientation} flushes NetworkTables immediately, so calling it
+ * once per camera forces one network flush per camera per loop. This writes every camera's
+ * {@code robot_orientation_set} entry with the same value and timestamp, and
+ * {@link #flush()} sends them together at a point of the loop the caller chooses.
+ */
+public class LimelightOrientationPublisher {
+  private final DoubleArrayEntry[] orientationEntries;
+  // yaw, yaw rate, pitch, pitch rate, roll, roll rate; reused every loop
+  private final double[] orientation = new double[6];
+
+  /** @param limelightNames NetworkTables names of every camera that should receive the heading */
+  public LimelightOrientationPublisher(String... limelightNames) {
+    orientationEntries = new DoubleArrayEntry[limelightNames.length];
+    for (int i = 0; i < limelightNames.length; i++) {
+      orientationEntries[i] =
+          LimelightHelpers.getLimelightDoubleArrayEntry(limelightNames[i], "robot_orientation_set");
+    }
+  }
+
+  /**
+   * Writes the heading to every camera without flushing.
+   *
+   * @param yawDegrees Robot heading in the WPILib blue field frame
+   * @param yawRateDegreesPerSecond Counterclockwise rotation rate
+   */
+  public void set(double yawDegrees, double yawRateDegreesPerSecond) {
+    orientation[0] = yawDegrees;
+    orientation[1] = yawRateDegreesPerSecond;
+    // Same timestamp for every camera so both see one consistent heading
+    long timestamp = NetworkTablesJNI.now();
+    for (DoubleArrayEntry entry : orientationEntries) {
+      entry.set(orientation, timestamp);
+    }
+  }
+
+  /** Sends everything written since the last flush to the cameras right away. */
+  public void flush() {
+    NetworkTableInstance.getDefault().flush();
+  }
+}
@@ -0,0 +1,212 @@
+package frc.lib;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.lib.Telemetry.Rate;
+import frc.lib.Telemetry.Tier;
+
+/**
+ * Times named sections of the robot loop (subsystem periodic() bodies, command execute() calls)
+ * with {@link System#nanoTime()} to find out what causes loop overruns.
+ *
+ * <p>Each section keeps a rolling window of its per-loop time. Once a second the window is sorted
+ * into a preallocated scratch array and p50/p95/p99/max are published through {@link Telemetry}.
+ * When a loop runs over budget, the sections that took the longest in that loop are reported as
+ * a Driver Station warning, at most once per second.
+ *
+ * <p>Call {@link #beginLoop()} and {@link #endLoop()} around the whole loop and time sections with
+ * {@link Section#begin()}/{@link Section#end()} in between. {@link #profileCommands} times every
+ * command the scheduler runs without wrapping them. Main thread only.
+ */
+public final class LoopProfiler {
+  private static final int WINDOW_LOOPS = 250; // 5 seconds of loops
+  private static final int STATS_PERIOD_LOOPS = 50;
+  private static final int REPORTED_CONTRIBUTORS = 3;
+  private static final double REPORT_INTERVAL_SECONDS = 1.0;
+
+  private static final List<Section> sections = new ArrayList<>();
+  private static final long[] scratch = new long[WINDOW_LOOPS];
+
+  private static double budgetSeconds = 0.02;
+  private static long loopStartNanos = 0;
+  private static long loopCount = 0;
+  private static long overruns = 0;
+  private static double lastReportSeconds = Double.NEGATIVE_INFINITY;
+
+  // One section per command name, looked up by command instance so the loop doesn't build names
+  private static final Map<Command, Section> commandSections = new IdentityHashMap<>();
+  private static final Map<String, Section> commandSectionsByName = new HashMap<>();
+  private static long commandMarkNanos = 0;
+
+  private LoopProfiler() {}
+
+  /** One timed part of the loop. Time spent in it is summed over each loop. */
+  public static final class Section {
+    private final String name;
+    private final long[] window = new long[WINDOW_LOOPS];
+    private int next = 0;
+    private int size = 0;
+    private long startNanos = 0;
+    private long loopNanos = 0;
+
+    private double p50Ms, p95Ms, p99Ms, maxMs;
+
+    private Section(String name) {
+      this.name = name;
+    }
+
+    public void begin() {
+      startNanos = System.nanoTime();
+    }
+
+    public void end() {
+      loopNanos += System.nanoTime() - startNanos;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    private void closeLoop() {
+      window[next] = loopNanos;
+      next = (next + 1) % WINDOW_LOOPS;
+      if (size < WINDOW_LOOPS) {
+        size++;
+      }
+    }
+
+    private void updateStats() {
+      if (size == 0) {
+        return;
+      }
+      System.arraycopy(window, 0, scratch, 0, size);
+      Arrays.sort(scratch, 0, size);
+      p50Ms = percentile(0.50);
+      p95Ms = percentile(0.95);
+      p99Ms = percentile(0.99);
+      maxMs = scratch[size - 1] / 1e6;
+    }
+
+    private double percentile(double p) {
+      return scratch[(int) Math.min(size - 1, Math.round(p * (size - 1)))] / 1e6;
+    }
+  }
+
+  /**
+   * Creates a section and registers its statistics with {@link Telemetry} under
+   * "Profiler/&lt;name&gt;". Call once, when the owner is constructed.
+   */
+  public static Section section(String name) {
+    Section section = new Section(name);
+    sections.add(section);
+    String prefix = "Profiler/" + name;
+    Telemetry.addDouble(prefix + " p50 ms", Rate.SLOW, Tier.DEBUG, () -> section.p50Ms);
+    Telemetry.addDouble(prefix + " p95 ms", Rate.SLOW, Tier.DEBUG, () -> section.p95Ms);
+    Telemetry.addDouble(prefix + " p99 ms", Rate.SLOW, Tier.DEBUG, () -> section.p99Ms);
+    Telemetry.addDouble(prefix + " max ms", Rate.SLOW, Tier.DEBUG, () -> section.maxMs);
+    return section;
+  }
+
+  /**
+   * Times every command the scheduler runs as the section "Command/&lt;name&gt;", using the
+   * scheduler's hooks instead of wrapping each command. Commands with the same name share a
+   * section, so give commands that matter a name with {@link Command#withName}.
+   *
+   * <p>The scheduler only calls back after a command's execute(), so each command is charged the
+   * time since the previous mark: the start of the command loop, set by a binding on the default
+   * button loop, or the previous command's callback. A command's isFinished() and end() are
+   * charged to it when it finishes, and to the next command otherwise. Call once, after every
+   * trigger is bound, so the mark is polled after them.
+   *
+   * <p>A command's section is looked up or created when it is scheduled, so the sections and their
+   * telemetry keys are never built inside the time being charged.
+   */
+  public static void profileCommands(CommandScheduler scheduler) {
+    scheduler.getDefaultButtonLoop().bind(() -> commandMarkNanos = System.nanoTime());
+    scheduler.onCommandInitialize(LoopProfiler::registerCommand);
+    scheduler.onCommandExecute(LoopProfiler::chargeCommand);
+    scheduler.onCommandFinish(LoopProfiler::chargeCommand);
+  }
+
+  private static Section registerCommand(Command command) {
+    Section section = commandSections.get(command);
+    if (section == null) {
+      // Commands can be scheduled from inside another command, so keep the first-time setup out
+      // of whatever is being charged by moving the mark past it
+      long start = System.nanoTime();
+      section = commandSectionsByName.computeIfAbsent(command.getName(), name -> section("Command/" + name));
+      commandSections.put(command, section);
+      commandMarkNanos += System.nanoTime() - start;
+    }
+    return section;
+  }
+
+  private static void chargeCommand(Command command) {
+    Section section = commandSections.get(command);
+    if (section == null) {
+      // Only if the command was scheduled before profileCommands() was called
+      section = registerCommand(command);
+    }
+    long now = System.nanoTime();
+    section.loopNanos += now - commandMarkNanos;
+    commandMarkNanos = now;
+  }
+
+  /** @param periodSeconds The loop period; loops longer than this count as overruns */
+  public static void setBudget(double periodSeconds) {
+    budgetSeconds = periodSeconds;
+  }
+
+  public static long getOverruns() {
+    return overruns;
+  }
+
+  public static void beginLoop() {
+    loopStartNanos = System.nanoTime();
+    for (int i = 0; i < sections.size(); i++) {
+      sections.get(i).loopNanos = 0;
+    }
+  }
+
+  public static void endLoop() {
+    long loopNanos = System.nanoTime() - loopStartNanos;
+    for (int i = 0; i < sections.size(); i++) {
+      sections.get(i).closeLoop();
+    }
+    if (++loopCount % STATS_PERIOD_LOOPS == 0) {
+      for (int i = 0; i < sections.size(); i++) {
+        sections.get(i).updateStats();
+      }
+    }
+    if (loopNanos > budgetSeconds * 1e9) {
+      overruns++;
+      reportOverrun(loopNanos);
+    }
+  }
+
+  // Only runs on an overrun, so building the message here is fine
+  private static void reportOverrun(long loopNanos) {
+    double now = System.nanoTime() / 1e9;
+    if (now - lastReportSeconds < REPORT_INTERVAL_SECONDS) {
+      return;
+    }
+    lastReportSeconds = now;
+
+    Section[] slowest = sections.toArray(new Section[0]);
+    Arrays.sort(slowest, (a, b) -> Long.compare(b.loopNanos, a.loopNanos));
+    StringBuilder message = new StringBuilder()
+        .append(String.format("Loop overrun: %.1f ms. Slowest:", loopNanos / 1e6));
+    for (int i = 0; i < Math.min(REPORTED_CONTRIBUTORS, slowest.length); i++) {
+      message.append(String.format(" %s %.1f ms;", slowest[i].name, slowest[i].loopNanos / 1e6));
+    }
+    DriverStation.reportWarning(message.toString(), false);
+  }
+}
@@ -0,0 +1,165 @@
+package frc.lib;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+
+/**
+ * Swerve kinematics that writes module speeds and angles into preallocated primitive
+ * arrays instead of returning new {@link SwerveModuleState} objects. Once constructed, calling
+ * {@link #toModuleStates(double, double, double)} and {@link #desaturate(double)} allocates
+ * nothing, which keeps the drive path off the roboRIO's garbage collector.
+ *
+ * <p>The math matches {@code SwerveDriveKinematics.toSwerveModuleStates}: when the chassis is
+ * commanded to stop, module angles are left where they were instead of snapping to zero.
+ */
+public class MutableSwerveKinematics {
+  private final double[] moduleX;
+  private final double[] moduleY;
+
+  private final double[] speeds;
+  private final double[] anglesDegrees;
+
+  // Inverse of A^T A for the forward kinematics least-squares fit
+  private final double[][] forwardInverse = new double[3][3];
+
+  /**
+   * @param moduleLocations Module positions relative to robot center, in the same order the
+   *     drive code indexes modules (+X forward, +Y left)
+   */
+  public MutableSwerveKinematics(Translation2d... moduleLocations) {
+    int numModules = moduleLocations.length;
+    moduleX = new double[numModules];
+    moduleY = new double[numModules];
+    speeds = new double[numModules];
+    anglesDegrees = new double[numModules];
+    for (int i = 0; i < numModules; i++) {
+      moduleX[i] = moduleLocations[i].getX();
+      moduleY[i] = moduleLocations[i].getY();
+    }
+
+    // Each module contributes rows [1, 0, -y] and [0, 1, x] to A, so A^T A is:
+    double sumX = 0, sumY = 0, sumR2 = 0;
+    for (int i = 0; i < numModules; i++) {
+      sumX += moduleX[i];
+      sumY += moduleY[i];
+      sumR2 += moduleX[i] * moduleX[i] + moduleY[i] * moduleY[i];
+    }
+    invert3x3(new double[][] {
+        {numModules, 0, -sumY},
+        {0, numModules, sumX},
+        {-sumY, sumX, sumR2}}, forwardInverse);
+  }
+
+  /**
+   * Computes each module's speed and angle for robot-relative chassis speeds.
+   *
+   * @param vxMetersPerSecond Forward speed
+   * @param vyMetersPerSecond Leftward speed
+   * @param omegaRadiansPerSecond Counterclockwise rotation rate
+   */
+  public void toModuleStates(double vxMetersPerSecond, double vyMetersPerSecond, double omegaRadiansPerSecond) {
+    if (vxMetersPerSecond == 0.0 && vyMetersPerSecond == 0.0 && omegaRadiansPerSecond == 0.0) {
+      // Hold the previous angles so the wheels don't all snap back to zero when stopping
+      for (int i = 0; i < speeds.length; i++) {
+        speeds[i] = 0.0;
+      }
+      return;
+    }
+
+    for (int i = 0; i < speeds.length; i++) {
+      // Velocity of a point on a rotating body: v + omega x r
+      double moduleVx = vxMetersPerSecond - omegaRadiansPerSecond * moduleY[i];
+      double moduleVy = vyMetersPerSecond + omegaRadiansPerSecond * moduleX[i];
+      speeds[i] = Math.hypot(moduleVx, moduleVy);
+      if (speeds[i] > 1e-6) {
+        anglesDegrees[i] = Math.toDegrees(Math.atan2(moduleVy, moduleVx));
+      }
+    }
+  }
+
+  /**
+   * Scales every module speed down by the same factor so none exceeds the given limit. Keeps the
+   * ratio between modules, so the robot still moves in the requested direction.
+   */
+  public void desaturate(double maxSpeedMetersPerSecond) {
+    double realMaxSpeed = 0.0;
+    for (double speed : speeds) {
+      realMaxSpeed = Math.max(realMaxSpeed, Math.abs(speed));
+    }
+    if (realMaxSpeed > maxSpeedMetersPerSecond) {
+      double scale = maxSpeedMetersPerSecond / realMaxSpeed;
+      for (int i = 0; i < speeds.length; i++) {
+        speeds[i] *= scale;
+      }
+    }
+  }
+
+  /**
+   * Least-squares forward kinematics: the robot-relative chassis speeds that best explain the
+   * measured module speeds and angles. Same result as {@code SwerveDriveKinematics.toChassisSpeeds}.
+   *
+   * @param moduleSpeeds Measured module speeds in meters per second
+   * @param moduleAnglesDegrees Measured module angles in degrees
+   * @param out Receives vx (m/s), vy (m/s) and omega (rad/s)
+   */
+  public void toChassisSpeeds(double[] moduleSpeeds, double[] moduleAnglesDegrees, double[] out) {
+    // A^T v, where v holds each module's velocity split into x and y components
+    double sumVx = 0, sumVy = 0, sumTangential = 0;
+    for (int i = 0; i < moduleX.length; i++) {
+      double angleRadians = Math.toRadians(moduleAnglesDegrees[i]);
+      double moduleVx = moduleSpeeds[i] * Math.cos(angleRadians);
+      double moduleVy = moduleSpeeds[i] * Math.sin(angleRadians);
+      sumVx += moduleVx;
+      sumVy += moduleVy;
+      sumTangential += -moduleY[i] * moduleVx + moduleX[i] * moduleVy;
+    }
+    for (int row = 0; row < 3; row++) {
+      out[row] = forwardInverse[row][0] * sumVx + forwardInverse[row][1] * sumVy + forwardInverse[row][2] * sumTangential;
+    }
+  }
+
+  private static void invert3x3(double[][] m, double[][] out) {
+    double det =
+        m[0][0] * (m[1][1] * m[2][2] - m[1][2] * m[2][1])
+        - m[0][1] * (m[1][0] * m[2][2] - m[1][2] * m[2][0])
+        + m[0][2] * (m[1][0] * m[2][1] - m[1][1] * m[2][0]);
+    out[0][0] = (m[1][1] * m[2][2] - m[1][2] * m[2][1]) / det;
+    out[0][1] = (m[0][2] * m[2][1] - m[0][1] * m[2][2]) / det;
+    out[0][2] = (m[0][1] * m[1][2] - m[0][2] * m[1][1]) / det;
+    out[1][0] = (m[1][2] * m[2][0] - m[1][0] * m[2][2]) / det;
+    out[1][1] = (m[0][0] * m[2][2] - m[0][2] * m[2][0]) / det;
+    out[1][2] = (m[0][2] * m[1][0] - m[0][0] * m[1][2]) / det;
+    out[2][0] = (m[1][0] * m[2][1] - m[1][1] * m[2][0]) / det;
+    out[2][1] = (m[0][1] * m[2][0] - m[0][0] * m[2][1]) / det;
+    out[2][2] = (m[0][0] * m[1][1] - m[0][1] * m[1][0]) / det;
+  }
+
+  public int getNumModules() {
+    return speeds.length;
+  }
+
+  public double getSpeed(int module) {
+    return speeds[module];
+  }
+
+  public double getAngleDegrees(int module) {
+    return anglesDegrees[module];
+  }
+
+  /**
+   * Copies the latest results into existing state objects for telemetry. A state's
+   * {@code Rotation2d} is only replaced when its module's angle changed since the last copy, so
+   * copying into the same states every loop allocates nothing while the modules hold their angles.
+   */
+  public void copyInto(SwerveModuleState[] states) {
+    for (int i = 0; i < speeds.length; i++) {
+      states[i].speedMetersPerSecond = speeds[i];
+      // Rotation2d.fromDegrees keeps exactly Math.toRadians of the degrees it was given
+      double angleRadians = Math.toRadians(anglesDegrees[i]);
+      if (states[i].angle.getRadians() != angleRadians) {
+        states[i].angle = new Rotation2d(angleRadians);
+      }
+    }
+  }
+}
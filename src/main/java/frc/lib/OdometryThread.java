@@ -0,0 +1,147 @@
+package frc.lib;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.RobotController;
+
+/**
+ * Samples a set of sensor signals on a dedicated {@link Notifier} thread at a fixed rate and
+ * queues each sample with its FPGA timestamp.
+ *
+ * <p>The queue is a preallocated single-producer/single-consumer ring buffer, so neither the
+ * sampling thread nor the robot loop ever takes a lock. The robot loop calls
+ * {@link #drain(SampleConsumer)} once per cycle to consume every sample taken since the last call.
+ * When the robot loop falls behind and the ring fills up, new samples are dropped and counted.
+ */
+public class OdometryThread {
+  /** Receives one queued sample. The values array is reused and must not be kept. */
+  @FunctionalInterface
+  public interface SampleConsumer {
+    void accept(double timestampSeconds, double[] values);
+  }
+
+  private final Notifier notifier;
+  private final double periodSeconds;
+  private final int capacity;
+  private final List<DoubleSupplier> signals = new ArrayList<>();
+  private Runnable refreshAction = () -> {};
+
+  private DoubleSupplier[] signalArray;
+  private double[] timestamps;
+  private double[][] values;
+
+  // Written only by the sampling thread / only by the robot loop respectively
+  private final AtomicLong writeIndex = new AtomicLong();
+  private final AtomicLong readIndex = new AtomicLong();
+
+  private final AtomicLong droppedSamples = new AtomicLong();
+  private final AtomicLong lateSamples = new AtomicLong();
+  private double lastSampleTimestamp = -1;
+  private boolean started = false;
+
+  /**
+   * @param frequencyHz How often to sample the registered signals
+   * @param queueCapacity How many samples may be waiting before new ones are dropped
+   */
+  public OdometryThread(double frequencyHz, int queueCapacity) {
+    this.periodSeconds = 1.0 / frequencyHz;
+    this.capacity = queueCapacity;
+    notifier = new Notifier(this::sample);
+    notifier.setName("OdometryThread");
+  }
+
+  /**
+   * Registers a signal to be read on every sample. Must be called before {@link #start()}.
+   *
+   * @return The index of this signal in the values array passed to {@link SampleConsumer}
+   */
+  public int registerSignal(DoubleSupplier signal) {
+    if (started) {
+      throw new IllegalStateException("Signals must be registered before the odometry thread starts");
+    }
+    signals.add(signal);
+    return signals.size() - 1;
+  }
+
+  /**
+   * Sets an action that runs at the start of every sample, before any signal is read. Use it to
+   * refresh cached signals (for example Phoenix {@code StatusSignal}s) in one call.
+   */
+  public void setRefreshAction(Runnable refreshAction) {
+    this.refreshAction = refreshAction;
+  }
+
+  /** Allocates the sample queue and starts sampling. */
+  public void start() {
+    if (started) {
+      return;
+    }
+    signalArray = signals.toArray(new DoubleSupplier[0]);
+    timestamps = new double[capacity];
+    values = new double[capacity][signalArray.length];
+    started = true;
+    notifier.startPeriodic(periodSeconds);
+  }
+
+  public void stop() {
+    notifier.stop();
+  }
+
+  // Runs on the notifier thread
+  private void sample() {
+    double timestamp = RobotController.getFPGATime() / 1e6;
+    if (lastSampleTimestamp > 0 && timestamp - lastSampleTimestamp > periodSeconds * 1.5) {
+      lateSamples.incrementAndGet();
+    }
+    lastSampleTimestamp = timestamp;
+
+    long write = writeIndex.get();
+    if (write - readIndex.get() >= capacity) {
+      droppedSamples.incrementAndGet();
+      return;
+    }
+
+    refreshAction.run();
+    int slot = (int) (write % capacity);
+    double[] row = values[slot];
+    for (int i = 0; i < signalArray.length; i++) {
+      row[i] = signalArray[i].getAsDouble();
+    }
+    timestamps[slot] = timestamp;
+    writeIndex.lazySet(write + 1);
+  }
+
+  /**
+   * Hands every queued sample to the consumer, oldest first, and removes them from the queue.
+   * Call this from the robot loop only.
+   *
+   * @return The number of samples consumed
+   */
+  public int drain(SampleConsumer consumer) {
+    if (!started) {
+      return 0;
+    }
+    long read = readIndex.get();
+    long write = writeIndex.get();
+    for (long i = read; i < write; i++) {
+      int slot = (int) (i % capacity);
+      consumer.accept(timestamps[slot], values[slot]);
+    }
+    readIndex.lazySet(write);
+    return (int) (write - read);
+  }
+
+  /** Samples discarded because the queue was full. */
+  public long getDroppedSamples() {
+    return droppedSamples.get();
+  }
+
+  /** Samples taken more than 1.5 periods after the previous one. */
+  public long getLateSamples() {
+    return lateSamples.get();
+  }
+}
@@ -0,0 +1,164 @@
+package frc.lib;
+
+import java.util.Optional;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+
+/**
+ * Fixed-capacity history of timestamped robot poses and field-relative velocities.
+ *
+ * <p>Samples live in parallel primitive arrays used as a ring buffer, so {@link #record} never
+ * allocates. Lookups binary search the timestamps (O(log n)) and linearly interpolate between
+ * the two samples around the requested time, taking the short way around for heading.
+ *
+ * <p>Not thread safe; record and query from the robot loop.
+ */
+public class PoseHistory {
+  /** Indices into the array filled by {@link #sampleAt(double, double[])}. */
+  public static final int X = 0, Y = 1, THETA = 2, VX = 3, VY = 4, OMEGA = 5;
+
+  private final int capacity;
+  private final double[] timestamps;
+  private final double[] x;
+  private final double[] y;
+  private final double[] theta;
+  private final double[] vx;
+  private final double[] vy;
+  private final double[] omega;
+
+  private int next = 0; // physical index the next sample is written to
+  private int size = 0;
+
+  public PoseHistory(int capacity) {
+    this.capacity = capacity;
+    timestamps = new double[capacity];
+    x = new double[capacity];
+    y = new double[capacity];
+    theta = new double[capacity];
+    vx = new double[capacity];
+    vy = new double[capacity];
+    omega = new double[capacity];
+  }
+
+  /**
+   * Adds a sample, overwriting the oldest one when full. Samples must arrive in time order;
+   * one older than the newest recorded sample is ignored.
+   *
+   * @param timestampSeconds FPGA time of the sample
+   * @param xMeters Field X position
+   * @param yMeters Field Y position
+   * @param thetaRadians Field heading
+   * @param vxMetersPerSecond Field-relative X velocity
+   * @param vyMetersPerSecond Field-relative Y velocity
+   * @param omegaRadiansPerSecond Rotation rate
+   */
+  public void record(double timestampSeconds, double xMeters, double yMeters, double thetaRadians,
+      double vxMetersPerSecond, double vyMetersPerSecond, double omegaRadiansPerSecond) {
+    if (size > 0 && timestampSeconds < getNewestTimestamp()) {
+      return;
+    }
+    timestamps[next] = timestampSeconds;
+    x[next] = xMeters;
+    y[next] = yMeters;
+    theta[next] = thetaRadians;
+    vx[next] = vxMetersPerSecond;
+    vy[next] = vyMetersPerSecond;
+    omega[next] = omegaRadiansPerSecond;
+    next = (next + 1) % capacity;
+    if (size < capacity) {
+      size++;
+    }
+  }
+
+  public void clear() {
+    size = 0;
+    next = 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public double getOldestTimestamp() {
+    return size == 0 ? Double.NaN : timestamps[physical(0)];
+  }
+
+  public double getNewestTimestamp() {
+    return size == 0 ? Double.NaN : timestamps[physical(size - 1)];
+  }
+
+  /**
+   * Interpolates the recorded state at a timestamp without allocating.
+   *
+   * <p>Times newer than the newest sample return the newest sample. Times older than the oldest
+   * sample are out of range, because the history no longer knows where the robot was.
+   *
+   * @param timestampSeconds FPGA time to look up
+   * @param out At least 6 long; receives x, y, theta, vx, vy, omega (see the index constants)
+   * @return false if the history is empty or the time is older than the oldest sample
+   */
+  public boolean sampleAt(double timestampSeconds, double[] out) {
+    if (size == 0 || timestampSeconds < getOldestTimestamp()) {
+      return false;
+    }
+    if (timestampSeconds >= getNewestTimestamp()) {
+      copySample(physical(size - 1), out);
+      return true;
+    }
+
+    // Find the last sample at or before the timestamp
+    int low = 0;
+    int high = size - 1;
+    while (low < high) {
+      int mid = (low + high + 1) >>> 1;
+      if (timestamps[physical(mid)] <= timestampSeconds) {
+        low = mid;
+      } else {
+        high = mid - 1;
+      }
+    }
+    int before = physical(low);
+    int after = physical(low + 1);
+
+    double span = timestamps[after] - timestamps[before];
+    double t = span <= 0 ? 0 : (timestampSeconds - timestamps[before]) / span;
+    out[X] = lerp(x[before], x[after], t);
+    out[Y] = lerp(y[before], y[after], t);
+    out[THETA] = theta[before] + Math.IEEEremainder(theta[after] - theta[before], 2 * Math.PI) * t;
+    out[VX] = lerp(vx[before], vx[after], t);
+    out[VY] = lerp(vy[before], vy[after], t);
+    out[OMEGA] = lerp(omega[before], omega[after], t);
+    return true;
+  }
+
+  /**
+   * Interpolated pose at a timestamp. Allocates the returned pose; use
+   * {@link #sampleAt(double, double[])} in hot paths.
+   */
+  public Optional<Pose2d> getPoseAt(double timestampSeconds) {
+    double[] sample = new double[6];
+    if (!sampleAt(timestampSeconds, sample)) {
+      return Optional.empty();
+    }
+    return Optional.of(new Pose2d(sample[X], sample[Y], new Rotation2d(sample[THETA])));
+  }
+
+  // Converts an index counted from the oldest sample into an array index
+  private int physical(int logicalIndex) {
+    return (next - size + logicalIndex + capacity) % capacity;
+  }
+
+  private void copySample(int index, double[] out) {
+    out[X] = x[index];
+    out[Y] = y[index];
+    out[THETA] = theta[index];
+    out[VX] = vx[index];
+    out[VY] = vy[index];
+    out[OMEGA] = omega[index];
+  }
+
+  private static double lerp(double a, double b, double t) {
+    return a + (b - a) * t;
+  }
+}
@@ -0,0 +1,74 @@
+package frc.lib;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.wpi.first.wpilibj.RobotController;
+
+/**
+ * Splits each robot loop into three phases: read every input, compute, then write every output.
+ *
+ * <p>Subsystems that implement {@link Phased} and {@link #register} themselves read their
+ * sensors into cached inputs in {@link Phased#readInputs()}, and only store the outputs that
+ * {@code periodic()} and commands decide on. {@code robotPeriodic()} calls {@link #readInputs()},
+ * runs the command scheduler (subsystem {@code periodic()} for state estimation, then commands)
+ * against those inputs, and calls {@link #writeOutputs()} to send every output in one burst. Every
+ * command sees the same inputs and the same pose no matter the scheduler order, and the time from
+ * reading inputs to finishing the writes is the same every loop and measured here.
+ */
+public final class RobotLoop {
+  /** A subsystem whose hardware reads and writes run as loop phases. */
+  public interface Phased {
+    /** Reads every sensor once into cached inputs. Runs before the command scheduler. */
+    void readInputs();
+
+    /** Sends the outputs stored during the loop. Runs after the command scheduler. */
+    void writeOutputs();
+  }
+
+  private static final List<Phased> subsystems = new ArrayList<>();
+
+  private static long readStartMicros = 0;
+  private static double inputToOutputMs = 0.0;
+  private static double writeMs = 0.0;
+
+  private RobotLoop() {}
+
+  /**
+   * Adds a subsystem to the read and write phases, in registration order.
+   *
+   * @param subsystem The subsystem, usually {@code this} from its constructor.
+   */
+  public static void register(Phased subsystem) {
+    subsystems.add(subsystem);
+  }
+
+  /** Phase one: every registered subsystem reads its inputs. */
+  public static void readInputs() {
+    readStartMicros = RobotController.getFPGATime();
+    for (Phased subsystem : subsystems) {
+      subsystem.readInputs();
+    }
+  }
+
+  /** Phase three: every registered subsystem writes its outputs. */
+  public static void writeOutputs() {
+    long writeStartMicros = RobotController.getFPGATime();
+    for (Phased subsystem : subsystems) {
+      subsystem.writeOutputs();
+    }
+    long writeEndMicros = RobotController.getFPGATime();
+    writeMs = (writeEndMicros - writeStartMicros) / 1000.0;
+    inputToOutputMs = (writeEndMicros - readStartMicros) / 1000.0;
+  }
+
+  /** @return Milliseconds from the start of the last read phase to the end of its write phase. */
+  public static double getInputToOutputMs() {
+    return inputToOutputMs;
+  }
+
+  /** @return Milliseconds the last write phase took. */
+  public static double getWriteMs() {
+    return writeMs;
+  }
+}
@@ -0,0 +1,114 @@
+package frc.lib;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+import com.revrobotics.PersistMode;
+import com.revrobotics.REVLibError;
+import com.revrobotics.ResetMode;
+import com.revrobotics.spark.SparkBase;
+import com.revrobotics.spark.SparkFlex;
+import com.revrobotics.spark.SparkMax;
+import com.revrobotics.spark.config.SparkBaseConfig;
+import com.revrobotics.spark.config.SparkBaseConfigAccessor;
+
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.Preferences;
+
+/**
+ * Applies a Spark config and only writes it to flash when it changed.
+ *
+ * <p>Persisting rewrites the controller's flash and takes much longer than a plain configure, so
+ * doing it on every boot for every controller slows startup and wears the flash. A fingerprint of
+ * the last persisted config is kept in {@link Preferences} per CAN ID, together with key
+ * parameters read back from the controller (inversion, idle mode, current limit and encoder
+ * conversion factors). When both still match, the config is applied without a reset or a persist,
+ * since the controller already boots with those settings. When the config changed, or the
+ * controller reports different parameters (it was swapped, or changed from the REV Hardware
+ * Client), the controller is reset to safe parameters, configured and persisted, and the new
+ * fingerprint is saved once that succeeds.
+ *
+ * <p>Safe to call from several threads at once, e.g. when swerve modules are built in parallel.
+ */
+public final class SparkConfigurator {
+  private SparkConfigurator() {}
+
+  /**
+   * Configures the controller, persisting only if the config changed since the last persist.
+   *
+   * @param spark The controller to configure.
+   * @param config The complete config for this controller.
+   * @return The result of the configure call.
+   */
+  public static REVLibError configure(SparkBase spark, SparkBaseConfig config) {
+    String key = preferenceKey(spark.getDeviceId());
+    long configFingerprint = fingerprint(config);
+
+    if (Preferences.getLong(key, -1) == fingerprint(configFingerprint, spark)) {
+      return spark.configure(config, ResetMode.kNoResetSafeParameters, PersistMode.kNoPersistParameters);
+    }
+
+    REVLibError error = spark.configure(config, ResetMode.kResetSafeParameters, PersistMode.kPersistParameters);
+    if (error == REVLibError.kOk) {
+      // Read back what the controller now holds, so the next boot compares against the same values
+      Preferences.setLong(key, fingerprint(configFingerprint, spark));
+      DataLogManager.log("Spark " + spark.getDeviceId() + " config changed, persisted to flash");
+    }
+    return error;
+  }
+
+  /**
+   * Forgets the stored fingerprint so the next {@link #configure} persists again, e.g. after the
+   * controller is swapped for one with the same CAN ID.
+   *
+   * @param canId The controller's CAN ID.
+   */
+  public static void invalidate(int canId) {
+    Preferences.remove(preferenceKey(canId));
+  }
+
+  /**
+   * @return A CRC32 of every parameter the config sets, as REVLib sends them to the controller.
+   */
+  static long fingerprint(SparkBaseConfig config) {
+    CRC32 crc = new CRC32();
+    crc.update(config.flatten().getBytes(StandardCharsets.UTF_8));
+    return crc.getValue();
+  }
+
+  /**
+   * Folds the parameters read back from the controller into a config fingerprint, so a
+   * controller that doesn't hold the persisted values no longer matches.
+   *
+   * @return The combined fingerprint, or the config fingerprint alone for other controller types.
+   */
+  private static long fingerprint(long configFingerprint, SparkBase spark) {
+    SparkBaseConfigAccessor accessor = configAccessor(spark);
+    if (accessor == null) {
+      return configFingerprint;
+    }
+    String readBack = configFingerprint
+        + "," + accessor.getInverted()
+        + "," + accessor.getIdleMode()
+        + "," + accessor.getSmartCurrentLimit()
+        + "," + accessor.encoder.getPositionConversionFactor()
+        + "," + accessor.encoder.getVelocityConversionFactor();
+    CRC32 crc = new CRC32();
+    crc.update(readBack.getBytes(StandardCharsets.UTF_8));
+    return crc.getValue();
+  }
+
+  private static SparkBaseConfigAccessor configAccessor(SparkBase spark) {
+    if (spark instanceof SparkMax max) {
+      return max.configAccessor;
+    }
+    if (spark instanceof SparkFlex flex) {
+      return flex.configAccessor;
+    }
+    return null;
+  }
+
+  private static String preferenceKey(int canId) {
+    return "Spark " + canId + " Config Fingerprint";
+  }
+}
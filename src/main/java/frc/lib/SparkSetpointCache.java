@@ -0,0 +1,132 @@
+package frc.lib;
+
+import com.revrobotics.spark.ClosedLoopSlot;
+import com.revrobotics.spark.SparkBase;
+import com.revrobotics.spark.SparkBase.ControlType;
+import com.revrobotics.spark.SparkClosedLoopController;
+
+import edu.wpi.first.wpilibj.RobotController;
+
+/**
+ * Sends a Spark's setpoint only when it changes.
+ *
+ * <p>Subsystems write their outputs every loop whether or not they changed, and each write is a
+ * JNI call and a CAN control frame. This remembers the last command sent and skips a new one with
+ * the same control type and slot whose value and arbitrary feedforward are within epsilon of it.
+ * The last command is still resent after a keep-alive period, so a controller that rebooted (e.g.
+ * after a brownout) picks its setpoint back up.
+ *
+ * <p>Only call from the main robot thread.
+ */
+public final class SparkSetpointCache {
+  /** Default time after which an unchanged setpoint is sent again. */
+  public static final double DEFAULT_KEEP_ALIVE_SECONDS = 0.1;
+  // Arbitrary feedforward is in volts; smaller changes than this don't move the motor
+  private static final double FEEDFORWARD_EPSILON_VOLTS = 1e-3;
+
+  private static long sentCount = 0;
+  private static long skippedCount = 0;
+
+  private final SparkBase spark;
+  private final SparkClosedLoopController controller;
+  private final double epsilon;
+  private final long keepAliveMicros;
+
+  private boolean hasSent = false;
+  private ControlType lastType;
+  private ClosedLoopSlot lastSlot;
+  private double lastValue;
+  private double lastFeedforwardVolts;
+  private long lastSentMicros;
+
+  /**
+   * @param spark The controller to send setpoints to.
+   * @param epsilon Largest change in setpoint, in the control type's units, that is not sent.
+   */
+  public SparkSetpointCache(SparkBase spark, double epsilon) {
+    this(spark, epsilon, DEFAULT_KEEP_ALIVE_SECONDS);
+  }
+
+  /**
+   * @param spark The controller to send setpoints to.
+   * @param epsilon Largest change in setpoint, in the control type's units, that is not sent.
+   * @param keepAliveSeconds How long an unchanged setpoint can go without being sent again.
+   */
+  public SparkSetpointCache(SparkBase spark, double epsilon, double keepAliveSeconds) {
+    this.spark = spark;
+    this.controller = spark.getClosedLoopController();
+    this.epsilon = epsilon;
+    this.keepAliveMicros = (long) (keepAliveSeconds * 1e6);
+  }
+
+  /**
+   * Sets a duty cycle, like {@link SparkBase#set}.
+   *
+   * @param dutyCycle Output from -1 to 1.
+   */
+  public void set(double dutyCycle) {
+    if (shouldSend(ControlType.kDutyCycle, ClosedLoopSlot.kSlot0, dutyCycle, 0.0)) {
+      spark.set(dutyCycle);
+    }
+  }
+
+  /**
+   * Sets a closed loop setpoint in slot 0 with no arbitrary feedforward.
+   *
+   * @param value The setpoint, in the control type's units.
+   * @param type The control type.
+   */
+  public void setReference(double value, ControlType type) {
+    setReference(value, type, ClosedLoopSlot.kSlot0, 0.0);
+  }
+
+  /**
+   * Sets a closed loop setpoint.
+   *
+   * @param value The setpoint, in the control type's units.
+   * @param type The control type.
+   * @param slot The closed loop slot with the gains to use.
+   * @param feedforwardVolts Arbitrary feedforward added to the controller's output.
+   */
+  public void setReference(double value, ControlType type, ClosedLoopSlot slot, double feedforwardVolts) {
+    if (shouldSend(type, slot, value, feedforwardVolts)) {
+      controller.setReference(value, type, slot, feedforwardVolts);
+    }
+  }
+
+  /** Makes the next setpoint send no matter what was sent before. */
+  public void invalidate() {
+    hasSent = false;
+  }
+
+  private boolean shouldSend(ControlType type, ClosedLoopSlot slot, double value, double feedforwardVolts) {
+    long now = RobotController.getFPGATime();
+    if (hasSent
+        && type == lastType
+        && slot == lastSlot
+        && Math.abs(value - lastValue) <= epsilon
+        && Math.abs(feedforwardVolts - lastFeedforwardVolts) <= FEEDFORWARD_EPSILON_VOLTS
+        && now - lastSentMicros < keepAliveMicros) {
+      skippedCount++;
+      return false;
+    }
+    hasSent = true;
+    lastType = type;
+    lastSlot = slot;
+    lastValue = value;
+    lastFeedforwardVolts = feedforwardVolts;
+    lastSentMicros = now;
+    sentCount++;
+    return true;
+  }
+
+  /** @return Setpoints sent by every cache since boot. */
+  public static long getSentCount() {
+    return sentCount;
+  }
+
+  /** @return Setpoints skipped by every cache since boot because they hadn't changed. */
+  public static long getSkippedCount() {
+    return skippedCount;
+  }
+}
@@ -0,0 +1,205 @@
+package frc.lib;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+import edu.wpi.first.networktables.BooleanPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.StructArrayPublisher;
+import edu.wpi.first.networktables.StructPublisher;
+import edu.wpi.first.util.struct.Struct;
+import edu.wpi.first.wpilibj.DriverStation;
+
+/**
+ * Rate-limited, tiered telemetry published through preallocated NetworkTables publishers.
+ *
+ * <p>Signals are registered once with a supplier, a {@link Rate} and a {@link Tier}. Each key is
+ * turned into a typed publisher at registration, so {@link #update()} never builds strings or
+ * looks up topics. Signals are published under the SmartDashboard table so existing dashboard
+ * layouts keep working.
+ *
+ * <p>A signal with a rate slower than the robot loop is given a phase when it is registered, and
+ * signals sharing a rate are dealt round-robin across the loops in one period. With forty 5 Hz
+ * signals, for example, four are published each loop instead of all forty every tenth loop, so
+ * telemetry cost stays flat and never piles onto one loop.
+ *
+ * <p>At {@link Tier#COMPETITION} only signals registered as competition signals are published.
+ * The tier is forced to competition whenever the FMS is attached.
+ *
+ * <p>Call {@link #update()} once per robot loop from the main thread.
+ */
+public final class Telemetry {
+  /** How often a signal is published. */
+  public enum Rate {
+    /** Every loop, for signals used to tune or watch control loops. */
+    CONTROL(50.0),
+    /** Encoder offsets, counters and other values that change slowly or matter rarely. */
+    DIAGNOSTIC(5.0),
+    /** Health values that only need to be glanced at. */
+    SLOW(1.0);
+
+    public final double hz;
+
+    Rate(double hz) {
+      this.hz = hz;
+    }
+  }
+
+  /** Which signals are published. */
+  public enum Tier {
+    /** Only the signals needed to drive a match and diagnose a failure afterwards. */
+    COMPETITION,
+    /** Everything. */
+    DEBUG
+  }
+
+  private static final double LOOP_HZ = 50.0;
+
+  private static final NetworkTable table = NetworkTableInstance.getDefault().getTable("SmartDashboard");
+  private static final List<Signal> signals = new ArrayList<>();
+  // Next phase to hand out for each rate, so signals with the same rate are spread across loops
+  private static final int[] nextPhase = new int[Rate.values().length];
+
+  private static Tier tier = Tier.DEBUG;
+  private static long loopCount = 0;
+
+  private Telemetry() {}
+
+  private abstract static class Signal {
+    final int periodLoops;
+    final int phase;
+    final boolean competition;
+
+    Signal(Rate rate, Tier tier) {
+      periodLoops = Math.max(1, (int) Math.round(LOOP_HZ / rate.hz));
+      phase = nextPhase[rate.ordinal()]++ % periodLoops;
+      competition = tier == Tier.COMPETITION;
+    }
+
+    abstract void publish();
+  }
+
+  private static final class DoubleSignal extends Signal {
+    final DoublePublisher publisher;
+    final DoubleSupplier supplier;
+
+    DoubleSignal(String key, Rate rate, Tier tier, DoubleSupplier supplier) {
+      super(rate, tier);
+      this.publisher = table.getDoubleTopic(key).publish();
+      this.supplier = supplier;
+    }
+
+    @Override
+    void publish() {
+      publisher.set(supplier.getAsDouble());
+    }
+  }
+
+  private static final class BooleanSignal extends Signal {
+    final BooleanPublisher publisher;
+    final BooleanSupplier supplier;
+
+    BooleanSignal(String key, Rate rate, Tier tier, BooleanSupplier supplier) {
+      super(rate, tier);
+      this.publisher = table.getBooleanTopic(key).publish();
+      this.supplier = supplier;
+    }
+
+    @Override
+    void publish() {
+      publisher.set(supplier.getAsBoolean());
+    }
+  }
+
+  private static final class StructSignal<T> extends Signal {
+    final StructPublisher<T> publisher;
+    final Supplier<T> supplier;
+
+    StructSignal(String key, Struct<T> struct, Rate rate, Tier tier, Supplier<T> supplier) {
+      super(rate, tier);
+      this.publisher = table.getStructTopic(key, struct).publish();
+      this.supplier = supplier;
+    }
+
+    @Override
+    void publish() {
+      publisher.set(supplier.get());
+    }
+  }
+
+  private static final class StructArraySignal<T> extends Signal {
+    final StructArrayPublisher<T> publisher;
+    final Supplier<T[]> supplier;
+
+    StructArraySignal(String key, Struct<T> struct, Rate rate, Tier tier, Supplier<T[]> supplier) {
+      super(rate, tier);
+      this.publisher = table.getStructArrayTopic(key, struct).publish();
+      this.supplier = supplier;
+    }
+
+    @Override
+    void publish() {
+      publisher.set(supplier.get());
+    }
+  }
+
+  /**
+   * Registers a number to publish. The supplier is only called on loops where the signal is
+   * published, so it may read hardware.
+   *
+   * @param key SmartDashboard key, e.g. "Mod 0 Cancoder"
+   * @param rate How often to publish
+   * @param tier {@link Tier#COMPETITION} to publish at matches, {@link Tier#DEBUG} otherwise
+   * @param supplier Reads the current value
+   */
+  public static void addDouble(String key, Rate rate, Tier tier, DoubleSupplier supplier) {
+    signals.add(new DoubleSignal(key, rate, tier, supplier));
+  }
+
+  /** Registers a boolean to publish. See {@link #addDouble}. */
+  public static void addBoolean(String key, Rate rate, Tier tier, BooleanSupplier supplier) {
+    signals.add(new BooleanSignal(key, rate, tier, supplier));
+  }
+
+  /**
+   * Registers a struct to publish. The value is packed when it is published, so the supplier may
+   * return the same mutable object every time.
+   */
+  public static <T> void addStruct(String key, Struct<T> struct, Rate rate, Tier tier, Supplier<T> supplier) {
+    signals.add(new StructSignal<>(key, struct, rate, tier, supplier));
+  }
+
+  /** Registers a struct array to publish. See {@link #addStruct}. */
+  public static <T> void addStructArray(
+      String key, Struct<T> struct, Rate rate, Tier tier, Supplier<T[]> supplier) {
+    signals.add(new StructArraySignal<>(key, struct, rate, tier, supplier));
+  }
+
+  public static void setTier(Tier newTier) {
+    tier = newTier;
+  }
+
+  public static Tier getTier() {
+    return DriverStation.isFMSAttached() ? Tier.COMPETITION : tier;
+  }
+
+  /** Publishes the signals due this loop. */
+  public static void update() {
+    boolean competitionOnly = getTier() == Tier.COMPETITION;
+    long loop = loopCount++;
+    for (int i = 0; i < signals.size(); i++) {
+      Signal signal = signals.get(i);
+      if (competitionOnly && !signal.competition) {
+        continue;
+      }
+      if (loop % signal.periodLoops == signal.phase) {
+        signal.publish();
+      }
+    }
+  }
+}
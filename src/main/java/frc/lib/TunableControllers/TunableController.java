@@ -1,25 +1,28 @@
 package frc.lib.TunableControllers;
 
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.networktables.DoubleEntry;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
 
 public class TunableController {
-    private String name;
     protected double[] constants;
-    private String[] constantNames;
+    // One entry per constant, made once so refresh() doesn't look keys up every loop
+    private DoubleEntry[] entries;
     protected TunableController(String name, String[] names, double... constants){
-        this.name = name;
-        this.constantNames = names;
-        
         this.constants = constants;
+        this.entries = new DoubleEntry[constants.length];
+
+        NetworkTable table = NetworkTableInstance.getDefault().getTable("SmartDashboard");
         for(int i = 0; i < this.constants.length; i++){
-            SmartDashboard.putNumber(name + "/" + names[i], this.constants[i]);
+            entries[i] = table.getDoubleTopic(name + "/" + names[i]).getEntry(this.constants[i]);
+            entries[i].set(this.constants[i]);
         }
         
     }
     protected boolean parameterUpdate(){
         boolean hasUpdate = false;
         for(int i = 0; i < this.constants.length; i++){
-            double newValue = SmartDashboard.getNumber(name + "/" + constantNames[i], this.constants[i]);
+            double newValue = entries[i].get(this.constants[i]);
             if(newValue != this.constants[i]){
                 this.constants[i] = newValue;
                 hasUpdate = true;
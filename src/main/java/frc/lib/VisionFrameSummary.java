@@ -0,0 +1,87 @@
+package frc.lib;
+
+import java.nio.ByteBuffer;
+
+import edu.wpi.first.util.struct.Struct;
+import edu.wpi.first.util.struct.StructSerializable;
+
+/**
+ * What one camera delivered this loop, published as one packed struct per camera.
+ * Counters are running totals; the frame fields describe the newest frame that was looked at.
+ * The object is reused by {@link LimelightCamera}.
+ */
+public class VisionFrameSummary implements StructSerializable {
+  public int framesThisLoop = 0;
+  public long framesReceived = 0;
+  public long framesDeduplicated = 0;
+  public long framesApplied = 0;
+  public long framesRejected = 0;
+
+  public double timestampSeconds = 0.0;
+  public int tagCount = 0;
+  public double avgTagDist = 0.0;
+  public double xyStdDev = 0.0;
+  /** Distance in meters from where odometry thought the robot was when the frame was captured */
+  public double odometryError = 0.0;
+
+  public static final Struct<VisionFrameSummary> struct = new VisionFrameSummaryStruct();
+
+  private static final class VisionFrameSummaryStruct implements Struct<VisionFrameSummary> {
+    @Override
+    public Class<VisionFrameSummary> getTypeClass() {
+      return VisionFrameSummary.class;
+    }
+
+    @Override
+    public String getTypeName() {
+      return "VisionFrameSummary";
+    }
+
+    @Override
+    public int getSize() {
+      return kSizeInt32 * 2 + kSizeInt64 * 4 + kSizeDouble * 4;
+    }
+
+    @Override
+    public String getSchema() {
+      return "int32 framesThisLoop;int64 framesReceived;int64 framesDeduplicated;int64 framesApplied;"
+          + "int64 framesRejected;double timestampSeconds;int32 tagCount;double avgTagDist;"
+          + "double xyStdDev;double odometryError";
+    }
+
+    @Override
+    public VisionFrameSummary unpack(ByteBuffer bb) {
+      VisionFrameSummary summary = new VisionFrameSummary();
+      unpackInto(summary, bb);
+      return summary;
+    }
+
+    @Override
+    public void unpackInto(VisionFrameSummary out, ByteBuffer bb) {
+      out.framesThisLoop = bb.getInt();
+      out.framesReceived = bb.getLong();
+      out.framesDeduplicated = bb.getLong();
+      out.framesApplied = bb.getLong();
+      out.framesRejected = bb.getLong();
+      out.timestampSeconds = bb.getDouble();
+      out.tagCount = bb.getInt();
+      out.avgTagDist = bb.getDouble();
+      out.xyStdDev = bb.getDouble();
+      out.odometryError = bb.getDouble();
+    }
+
+    @Override
+    public void pack(ByteBuffer bb, VisionFrameSummary value) {
+      bb.putInt(value.framesThisLoop);
+      bb.putLong(value.framesReceived);
+      bb.putLong(value.framesDeduplicated);
+      bb.putLong(value.framesApplied);
+      bb.putLong(value.framesRejected);
+      bb.putDouble(value.timestampSeconds);
+      bb.putInt(value.tagCount);
+      bb.putDouble(value.avgTagDist);
+      bb.putDouble(value.xyStdDev);
+      bb.putDouble(value.odometryError);
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package frc.lib;
+
+import frc.lib.LimelightHelpers.MutablePoseEstimate;
+import frc.lib.LimelightHelpers.RawFiducial;
+
+/**
+ * Decides how much the pose estimator should trust one vision frame.
+ *
+ * <p>Instead of one fixed standard deviation for every frame, the x/y standard deviation grows
+ * with the square of the average tag distance, shrinks with more tags and a wider tag spread,
+ * and grows with the worst fiducial ambiguity. Good frames (several close tags) get tight trust
+ * so the pose converges in a few frames; poor frames still help but move the pose less.
+ */
+public class VisionTrustModel {
+  /**
+   * Tuning values for one camera.
+   *
+   * @param baseXYStdDev Std dev in meters for one tag seen from very close
+   * @param distanceSquaredScale Growth per square meter of average tag distance
+   * @param singleTagScale Extra multiplier when only one tag is visible
+   * @param tagSpanScale Reduction per meter of tag span when several tags are visible
+   * @param ambiguityScale Growth per unit of the worst fiducial ambiguity
+   * @param maxAmbiguity Frames whose worst ambiguity is above this are rejected
+   */
+  public record Coefficients(
+      double baseXYStdDev,
+      double distanceSquaredScale,
+      double singleTagScale,
+      double tagSpanScale,
+      double ambiguityScale,
+      double maxAmbiguity) {}
+
+  private final Coefficients coefficients;
+
+  public VisionTrustModel(Coefficients coefficients) {
+    this.coefficients = coefficients;
+  }
+
+  /**
+   * @param estimate A frame with at least one tag
+   * @return The x/y standard deviation in meters, or {@link Double#NaN} if the frame is too
+   *     ambiguous to use
+   */
+  public double getXYStdDev(MutablePoseEstimate estimate) {
+    double worstAmbiguity = 0.0;
+    for (int i = 0; i < estimate.fiducialCount; i++) {
+      RawFiducial fiducial = estimate.rawFiducials[i];
+      worstAmbiguity = Math.max(worstAmbiguity, fiducial.ambiguity);
+    }
+    if (worstAmbiguity > coefficients.maxAmbiguity()) {
+      return Double.NaN;
+    }
+
+    double stdDev = coefficients.baseXYStdDev()
+        * (1 + coefficients.distanceSquaredScale() * estimate.avgTagDist * estimate.avgTagDist)
+        * (1 + coefficients.ambiguityScale() * worstAmbiguity);
+
+    if (estimate.tagCount <= 1) {
+      stdDev *= coefficients.singleTagScale();
+    } else {
+      stdDev /= Math.sqrt(estimate.tagCount) * (1 + coefficients.tagSpanScale() * estimate.tagSpan);
+    }
+    return stdDev;
+  }
+}
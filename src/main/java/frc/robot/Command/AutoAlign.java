@@ -27,6 +27,7 @@ public class AutoAlign extends Command {
     private static final double kRadialKi = 0.0;
     private static final double kRadialKd = 0.0;
     private static final double kHeadingKp = 4.5; //P-gain for yaw control that faces the hub
+    private static final Translation2d kHubLocation = new Translation2d(4.61,4.03); //Hub location (blue)
 
     //PID that holds the robot's yaw pointed at the hub while driving the arc
     private final PIDController m_headingController = new PIDController(kHeadingKp,0,0);
@@ -58,9 +59,37 @@ public class AutoAlign extends Command {
     public void execute(){
         Pose2d FieldPosition = m_SwerveSubsystem.getPose();    //Get robot position on field
 
-        Translation2d HubLocation = new Translation2d(4.61,4.03); //Hub location
-        HubLocation = FieldConstants.flipForAlliance(HubLocation); //Mirror the hub point when we are Red
+        Translation2d HubLocation = FieldConstants.flipForAlliance(kHubLocation); //Mirror the hub point when we are Red
 
+        ChassisSpeeds requestedSpeeds = calculateOrbitSpeeds(
+            FieldPosition, HubLocation, m_orbitLeft, m_radiusController, m_headingController);
+
+        // Stop driving if odometry is incorrect
+        if (requestedSpeeds == null){
+            m_SwerveSubsystem.driveFromChassisSpeeds(new ChassisSpeeds(), true);
+            return;
+        }
+
+        m_SwerveSubsystem.driveFromChassisSpeeds(requestedSpeeds, false);
+        // Command the swerve in closed loop
+        
+    }
+
+    /**
+     * The orbit math from execute(), kept free of the drivetrain so it can be benchmarked on desktop.
+     * @param FieldPosition Robot pose on the field
+     * @param HubLocation Hub center, already flipped for our alliance
+     * @param orbitLeft true = counterclockwise arc, false = clockwise arc
+     * @param radiusController PID holding the orbit radius (setpoint = desired radius)
+     * @param headingController PID pointing the robot at the hub (continuous input)
+     * @return Robot-relative speeds, or null if the robot is on top of the hub and odometry must be wrong
+     */
+    public static ChassisSpeeds calculateOrbitSpeeds(
+            Pose2d FieldPosition,
+            Translation2d HubLocation,
+            boolean orbitLeft,
+            PIDController radiusController,
+            PIDController headingController){
         Translation2d robotToHub = HubLocation.minus(FieldPosition.getTranslation()); //Vector from robot to hub.
         double radialDistance = robotToHub.getNorm(); 
         /*translation2d that points from the robot to the hub 
@@ -68,22 +97,20 @@ public class AutoAlign extends Command {
          * this line computes how far the robot currently is from the hub
         */
 
-        // Stop driving if odometry is incorrect
         if (radialDistance < 0.05){
-            m_SwerveSubsystem.driveFromChassisSpeeds(new ChassisSpeeds(), true);
-            return;
+            return null;
         }
 
         Translation2d radialDirection = robotToHub.div(radialDistance); //Unit vector that always points toward the hub
         Translation2d tangentialDirection = new Translation2d(-radialDirection.getY(), radialDirection.getX());
         //Radial vector rotated 90 degrees counterclockwise
 
-        if(!m_orbitLeft){
+        if(!orbitLeft){
             tangentialDirection = tangentialDirection.times(-1);
             //flip the tangent so we can orbit clockwise when needed
         }
 
-        double radialPidOutput = m_radiusController.calculate(radialDistance);
+        double radialPidOutput = radiusController.calculate(radialDistance);
         double radialSpeed = MathUtil.clamp(
             -radialPidOutput, 
             -kMaxRadialSpeedMetersPerSecond, 
@@ -116,23 +143,18 @@ public class AutoAlign extends Command {
         }
         double headingRate = MathUtil.clamp(
             headingFeedforward +
-            m_headingController.calculate((FieldPosition.getRotation().getRadians()), desiredHeadingRadians),
+            headingController.calculate((FieldPosition.getRotation().getRadians()), desiredHeadingRadians),
             -SwerveConstants.maxAngularVelocity,
             SwerveConstants.maxAngularVelocity);
         // Yaw PID output limited to drivetrain capabilities
 
         
-        ChassisSpeeds requestedSpeeds = ChassisSpeeds.fromFieldRelativeSpeeds(
+        return ChassisSpeeds.fromFieldRelativeSpeeds(
             fieldRelativeVelocity.getX(), 
             fieldRelativeVelocity.getY(), 
             headingRate, 
             FieldPosition.getRotation());
         // Convert into chassis-relative speeds
-
-
-        m_SwerveSubsystem.driveFromChassisSpeeds(requestedSpeeds, false);
-        // Command the swerve in closed loop
-        
     }
 
     @Override
@@ -15,6 +15,8 @@ import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
 import edu.wpi.first.math.util.Units;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.DriverStation.Alliance;
+import frc.lib.Telemetry;
+import frc.lib.VisionTrustModel;
 
 /** Central location for robot-wide constants grouped by subsystem and feature */
 public final class Constants {
@@ -94,6 +96,13 @@ public static final double motorSpeedMultiplier = 0.5; // Used to scale down mot
     public static final double maxSpeed = 3; // meters per second
     public static final double maxAngularVelocity = maxSpeed/driveBaseRadius; //radians per second how fast the robot spin
 
+    /* Odometry Sampling */
+    public static final double odometryFrequencyHz = 250.0; // how often the odometry thread samples encoders and gyro
+    public static final int odometryQueueCapacity = 64; // samples that can wait for periodic() before new ones are dropped
+    public static final int odometryStatusPeriodMs = (int) (1000.0 / odometryFrequencyHz); // encoder status frame period to match
+    public static final double poseHistorySeconds = 1.5; // how far back getPoseAt() can look
+    public static final double maxYawExtrapolationSeconds = 0.1; // older gyro samples are used as-is instead of extrapolated
+
     /* Neutral Modes */
     public static final IdleMode angleNeutralMode = IdleMode.kBrake;
     public static final IdleMode driveNeutralMode = IdleMode.kBrake;
@@ -167,9 +176,16 @@ public class FieldConstants {
 
       public static final double HOOD_ANGLE_LOW = 0.0;
       public static final double HOOD_ANGLE_HIGH = 0.5;
-      public static final double HOOD_KP = 1.2;
+      public static final double HOOD_KP = 1.2; // duty cycle per rotation of error, on the Spark
       public static final double HOOD_MAX_OUTPUT = 0.4;
       public static final double HOOD_TOLERANCE = 0.02;
+      // MAXMotion limits for the hood's onboard position loop, in motor RPM and RPM per second
+      public static final double HOOD_MAX_VELOCITY_RPM = 600;
+      public static final double HOOD_MAX_ACCELERATION_RPM_PER_SECOND = 3000;
+      public static final double HOOD_SIM_MOI_KG_M2 = 0.0005; // hood inertia seen by the motor, guessed
+      public static final double HOOD_POSITION_EPSILON = 1e-3; // hood target change, in motor rotations, too small to resend
+
+      public static final double OUTPUT_EPSILON = 1e-3; // duty cycle change too small to resend
   }
   public class IntakeConstants {
     public static int INTAKE_ID = 60; // placeholder
@@ -182,9 +198,47 @@ public class FieldConstants {
     public static double INTAKE_ARM_MAXIMUM = 90;
     public static int GEAR_RATIO = 3;
 
-    public static double INTAKE_ARM_kP = 0.01;
+    public static double INTAKE_ARM_kP = 0.01; // duty cycle per degree of error, on the Spark
     public static double INTAKE_ARM_kI = 0;
     public static double INTAKE_ARM_kD = 0;
+    // Arm feedforward in volts, with the angle in radians from horizontal (placeholders, tune kG first)
+    public static double INTAKE_ARM_kS = 0;
+    public static double INTAKE_ARM_kG = 0.3;
+    public static double INTAKE_ARM_kV = 0;
+    public static double INTAKE_ARM_MAX_VELOCITY = 180; // degrees per second
+    public static double INTAKE_ARM_MAX_ACCELERATION = 360; // degrees per second squared
+    public static double INTAKE_ARM_TOLERANCE = 3; // degrees
+    public static final double INTAKE_ARM_PROFILE_EPSILON = 1e-3; // degrees, and degrees per second, from the profile's goal
+    public static double INTAKE_ARM_LENGTH_METERS = 0.4; // for the simulated arm
+
+    public static final double OUTPUT_EPSILON = 1e-3; // duty cycle change too small to resend
+  }
+
+  public class VisionConstants {
+    public static final String LIMELIGHT_A_NAME = "limelight-a";
+    public static final String LIMELIGHT_B_NAME = "limelight-b";
+
+    // Vision trust per camera: base std dev (m), distance² scale, single-tag scale,
+    // tag span scale, ambiguity scale, max ambiguity. Need to measure on the field.
+    public static final VisionTrustModel.Coefficients LIMELIGHT_A_TRUST =
+        new VisionTrustModel.Coefficients(0.1, 0.3, 2.0, 0.5, 1.0, 0.7);
+    public static final VisionTrustModel.Coefficients LIMELIGHT_B_TRUST =
+        new VisionTrustModel.Coefficients(0.1, 0.3, 2.0, 0.5, 1.0, 0.7);
+
+    // MegaTag2 heading comes from our own gyro, so vision should never correct it
+    public static final double MEGATAG2_THETA_STD_DEV = 99999;
+  }
+
+  public class TelemetryConstants {
+    // DEBUG publishes everything; COMPETITION only match-critical signals. Forced to
+    // COMPETITION whenever the FMS is attached.
+    public static final Telemetry.Tier TIER = Telemetry.Tier.DEBUG;
+  }
+
+  public class CANConstants {
+    // Highest declared CAN bus utilization (percent) accepted at boot, leaving room for
+    // request/response traffic and frames the estimate doesn't count
+    public static final double BUS_LOAD_BUDGET_PERCENT = 70.0;
   }
 
   public class CANdleConstants {
@@ -4,9 +4,22 @@
 
 package frc.robot;
 
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.RobotController;
 import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.lib.AsyncDataLogger;
+import frc.lib.CANBandwidthManager;
+import frc.lib.CANBandwidthManager.Mode;
+import frc.lib.CANBusLoad;
+import frc.lib.LoopProfiler;
+import frc.lib.RobotLoop;
+import frc.lib.SparkSetpointCache;
+import frc.lib.Telemetry;
+import frc.lib.Telemetry.Rate;
+import frc.lib.Telemetry.Tier;
 
 /**
  * Main robot class that extends TimedRobot. This is the entry point for the robot program
@@ -24,25 +37,95 @@ public class Robot extends TimedRobot {
 
   private final RobotContainer m_robotContainer;
 
+  // How long robotPeriodic() took and how long since the previous loop started, in milliseconds
+  private final AsyncDataLogger.DoubleChannel loopTimeLog = AsyncDataLogger.addDouble("Loop/Robot Periodic ms");
+  private final AsyncDataLogger.DoubleChannel loopPeriodLog = AsyncDataLogger.addDouble("Loop/Period ms");
+  // From reading inputs to finishing the output writes, and how long the writes took
+  private final AsyncDataLogger.DoubleChannel inputToOutputLog = AsyncDataLogger.addDouble("Loop/Input To Output ms");
+  private final AsyncDataLogger.DoubleChannel writeOutputsLog = AsyncDataLogger.addDouble("Loop/Write Outputs ms");
+  private long lastLoopStart = RobotController.getFPGATime();
+
+  // How long the constructor took, mostly hardware configuration
+  private double bootSeconds;
+
+  // Subsystems time themselves and commands are timed by scheduler hooks inside the scheduler run;
+  // this covers what runs around it
+  private final LoopProfiler.Section readInputsSection = LoopProfiler.section("Read Inputs");
+  private final LoopProfiler.Section writeOutputsSection = LoopProfiler.section("Write Outputs");
+  private final LoopProfiler.Section telemetrySection = LoopProfiler.section("Telemetry");
+
   /**
    * Constructs the Robot. Initializes the RobotContainer which creates subsystems
    * (subsystems configure themselves) and sets up command bindings.
    */
   public Robot() {
+    long bootStart = System.nanoTime();
+    // Log to a USB drive when one is plugged in; subsystems register log channels as they're built
+    DataLogManager.start();
+    DriverStation.startDataLog(DataLogManager.getLog());
+    Telemetry.setTier(Constants.TelemetryConstants.TIER);
     m_robotContainer = new RobotContainer();
+    // Every trigger is bound by now, so commands are timed from after the last one is polled
+    LoopProfiler.profileCommands(CommandScheduler.getInstance());
+    // Every device has declared its frames by now
+    CANBusLoad.checkBudget(Constants.CANConstants.BUS_LOAD_BUDGET_PERCENT);
+
+    Telemetry.addDouble("Log Dropped Records", Rate.DIAGNOSTIC, Tier.COMPETITION, AsyncDataLogger::getDroppedRecords);
+    Telemetry.addDouble("Loop Overruns", Rate.DIAGNOSTIC, Tier.COMPETITION, LoopProfiler::getOverruns);
+    Telemetry.addDouble("Setpoints Sent", Rate.SLOW, Tier.DEBUG, SparkSetpointCache::getSentCount);
+    Telemetry.addDouble("Setpoints Skipped", Rate.SLOW, Tier.DEBUG, SparkSetpointCache::getSkippedCount);
+    Telemetry.addDouble("Input To Output ms", Rate.DIAGNOSTIC, Tier.COMPETITION, RobotLoop::getInputToOutputMs);
+    Telemetry.addDouble("CAN Estimated Spark Load %", Rate.DIAGNOSTIC, Tier.COMPETITION,
+        CANBandwidthManager::getEstimatedBusLoadPercent);
+    Telemetry.addDouble("CAN Declared Load %", Rate.SLOW, Tier.COMPETITION, CANBusLoad::getUtilizationPercent);
+    Telemetry.addDouble("CAN Measured Load %", Rate.DIAGNOSTIC, Tier.COMPETITION,
+        () -> RobotController.getCANStatus().percentBusUtilization * 100.0);
+    LoopProfiler.setBudget(getPeriod());
+    AsyncDataLogger.start();
+
+    bootSeconds = (System.nanoTime() - bootStart) * 1e-9;
+    DataLogManager.log(String.format("Robot constructed in %.3f s", bootSeconds));
+    Telemetry.addDouble("Robot Boot Seconds", Rate.SLOW, Tier.COMPETITION, () -> bootSeconds);
   }
 
   /**
-   * Called every 20ms during all robot modes. Runs the CommandScheduler which
-   * executes active commands, checks button/trigger bindings, and updates subsystems.
+   * Called every 20ms during all robot modes. Reads every subsystem's inputs, runs the
+   * CommandScheduler which executes active commands, checks button/trigger bindings, and updates
+   * subsystems, then writes every subsystem's outputs.
    */
   @Override
   public void robotPeriodic() {
+    long loopStart = RobotController.getFPGATime();
+    loopPeriodLog.log((loopStart - lastLoopStart) / 1000.0);
+    lastLoopStart = loopStart;
+
+    LoopProfiler.beginLoop();
+    // Read every input, compute against them (subsystem periodic() then commands), then write
+    // every output at once
+    readInputsSection.begin();
+    RobotLoop.readInputs();
+    readInputsSection.end();
     CommandScheduler.getInstance().run();
+    writeOutputsSection.begin();
+    RobotLoop.writeOutputs();
+    writeOutputsSection.end();
+    inputToOutputLog.log(RobotLoop.getInputToOutputMs());
+    writeOutputsLog.log(RobotLoop.getWriteMs());
+    // Switch status frame rates after commands have started or stopped mechanisms
+    CANBandwidthManager.update();
+    // Publish the telemetry due this loop after every subsystem has updated
+    telemetrySection.begin();
+    Telemetry.update();
+    telemetrySection.end();
+    LoopProfiler.endLoop();
+
+    loopTimeLog.log((RobotController.getFPGATime() - loopStart) / 1000.0);
   }
 
   @Override
-  public void disabledInit() {}
+  public void disabledInit() {
+    CANBandwidthManager.setMode(Mode.DISABLED);
+  }
 
   @Override
   public void disabledPeriodic() {}
@@ -52,6 +135,7 @@ public class Robot extends TimedRobot {
 
   @Override
   public void autonomousInit() {
+    CANBandwidthManager.setMode(Mode.AUTONOMOUS);
     m_autonomousCommand = m_robotContainer.getAutonomousCommand();
 
     if (m_autonomousCommand != null) {
@@ -67,6 +151,7 @@ public class Robot extends TimedRobot {
 
   @Override
   public void teleopInit() {
+    CANBandwidthManager.setMode(Mode.TELEOP);
     // Cancel any scheduled autonomous command when teleop starts.
     // This ensures only one command runs at a time.
     if (m_autonomousCommand != null) {
@@ -82,6 +167,7 @@ public class Robot extends TimedRobot {
 
   @Override
   public void testInit() {
+    CANBandwidthManager.setMode(Mode.TEST);
     // Cancel all commands when entering test mode.
     CommandScheduler.getInstance().cancelAll();
   }
@@ -94,16 +94,17 @@ public class RobotContainer {
               }
               m_shooter.runFeederSpeed(feederSpeed);
             },
-            m_shooter));
+            m_shooter)
+        .withName("Shooter Default"));
 
     helmsController.button(Button.kB.value).onTrue(new InstantCommand(() -> m_shooter.setHoodAngle(ShooterSubsystem.HoodAngle.LOW), m_shooter));
     helmsController.button(Button.kY.value).onTrue(new InstantCommand(() -> m_shooter.setHoodAngle(ShooterSubsystem.HoodAngle.HIGH), m_shooter));
 
     
     // Left Trigger = Auto-align to left scoring position
-    driveController.axisGreaterThan(Axis.kLeftTrigger.value, 0.1).whileTrue(new AutoAlign(m_drive, true));
+    driveController.axisGreaterThan(Axis.kLeftTrigger.value, 0.1).whileTrue(new AutoAlign(m_drive, true).withName("AutoAlign Left"));
     // Right Trigger = Auto-align to right scoring position
-    driveController.axisGreaterThan(Axis.kRightTrigger.value, 0.1).whileTrue(new AutoAlign(m_drive, false));
+    driveController.axisGreaterThan(Axis.kRightTrigger.value, 0.1).whileTrue(new AutoAlign(m_drive, false).withName("AutoAlign Right"));
 
     // Default command runs continuously when no other command requires the subsystem.
     // It automatically pauses when commands like AutoAlign take control, then resumes
@@ -129,7 +130,8 @@ public class RobotContainer {
     m_intake.setDefaultCommand(
         new RunCommand(
             () -> m_intake.setIntakePower(-MathUtil.applyDeadband(helmsController.getLeftY(), 0.1)),
-            m_intake));
+            m_intake)
+        .withName("Intake Default"));
     
     
     //lowers the intake using the A button on the helms controller
@@ -156,6 +158,18 @@ public class RobotContainer {
     return driveController.getHID().getRawButton(Button.kLeftStick.value)? 0.7: 1;
   }
 
+  public SwerveSubsystem getDrive() {
+    return m_drive;
+  }
+
+  public IntakeSubsystem getIntake() {
+    return m_intake;
+  }
+
+  public ShooterSubsystem getShooter() {
+    return m_shooter;
+  }
+
   /**
    * Use this to pass the autonomous command to the main {@link Robot} class.
    *
@@ -0,0 +1,71 @@
+package frc.robot.Subsystems;
+
+import java.nio.ByteBuffer;
+
+import edu.wpi.first.util.struct.Struct;
+import edu.wpi.first.util.struct.StructSerializable;
+
+/**
+ * Intake telemetry snapshot, published as one packed struct per loop.
+ * The object is reused by {@link IntakeSubsystem}; fields are filled in periodic().
+ */
+public class IntakeState implements StructSerializable {
+  public boolean intakeOn = false;
+  public boolean intakeUp = true;
+  public double rollerOutput = 0.0;
+  public double armPositionDegrees = 0.0;
+  public double armTargetDegrees = 0.0;
+  public double armOutput = 0.0;
+
+  public static final Struct<IntakeState> struct = new IntakeStateStruct();
+
+  private static final class IntakeStateStruct implements Struct<IntakeState> {
+    @Override
+    public Class<IntakeState> getTypeClass() {
+      return IntakeState.class;
+    }
+
+    @Override
+    public String getTypeName() {
+      return "IntakeState";
+    }
+
+    @Override
+    public int getSize() {
+      return kSizeBool * 2 + kSizeDouble * 4;
+    }
+
+    @Override
+    public String getSchema() {
+      return "bool intakeOn;bool intakeUp;double rollerOutput;double armPositionDegrees;"
+          + "double armTargetDegrees;double armOutput";
+    }
+
+    @Override
+    public IntakeState unpack(ByteBuffer bb) {
+      IntakeState state = new IntakeState();
+      unpackInto(state, bb);
+      return state;
+    }
+
+    @Override
+    public void unpackInto(IntakeState out, ByteBuffer bb) {
+      out.intakeOn = bb.get() != 0;
+      out.intakeUp = bb.get() != 0;
+      out.rollerOutput = bb.getDouble();
+      out.armPositionDegrees = bb.getDouble();
+      out.armTargetDegrees = bb.getDouble();
+      out.armOutput = bb.getDouble();
+    }
+
+    @Override
+    public void pack(ByteBuffer bb, IntakeState value) {
+      bb.put((byte) (value.intakeOn ? 1 : 0));
+      bb.put((byte) (value.intakeUp ? 1 : 0));
+      bb.putDouble(value.rollerOutput);
+      bb.putDouble(value.armPositionDegrees);
+      bb.putDouble(value.armTargetDegrees);
+      bb.putDouble(value.armOutput);
+    }
+  }
+}
@@ -4,13 +4,31 @@
 
 package frc.robot.Subsystems;
 
-import edu.wpi.first.math.controller.ArmFeedforward;
-import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.math.trajectory.TrapezoidProfile;
 import edu.wpi.first.math.util.Units;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.RoboRioSim;
+import edu.wpi.first.wpilibj.simulation.SingleJointedArmSim;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.lib.AsyncDataLogger;
+import frc.lib.CANBandwidthManager;
+import frc.lib.CANSparkUtil.Usage;
+import frc.lib.LoopProfiler;
+import frc.lib.RobotLoop;
+import frc.lib.SparkSetpointCache;
+import frc.lib.Telemetry;
+import frc.lib.Telemetry.Rate;
+import frc.lib.Telemetry.Tier;
 import frc.lib.TunableControllers.TunableArmFeedforward;
 import frc.robot.Constants.IntakeConstants;
 
+import com.revrobotics.sim.SparkMaxSim;
+import com.revrobotics.spark.ClosedLoopSlot;
+import com.revrobotics.spark.SparkBase.ControlType;
 import com.revrobotics.spark.SparkMax;
 import com.revrobotics.spark.config.SparkBaseConfig.IdleMode;
 import com.revrobotics.spark.config.SparkMaxConfig;
@@ -19,21 +37,56 @@ import com.revrobotics.RelativeEncoder;
 import com.revrobotics.ResetMode;
 import com.revrobotics.spark.SparkLowLevel.MotorType;
 
-public class IntakeSubsystem extends SubsystemBase {
+public class IntakeSubsystem extends SubsystemBase implements RobotLoop.Phased {
 
   private final SparkMax intakeMotor = new SparkMax(IntakeConstants.INTAKE_ID, MotorType.kBrushless);
   private final SparkMax intakeArmMotor = new SparkMax(IntakeConstants.INTAKE_ARM_ID, MotorType.kBrushless);
+  // Outputs are only sent when they change (or to keep them alive)
+  private final SparkSetpointCache rollerSetpoints = new SparkSetpointCache(intakeMotor, IntakeConstants.OUTPUT_EPSILON);
+  private final SparkSetpointCache armSetpoints = new SparkSetpointCache(intakeArmMotor, IntakeConstants.OUTPUT_EPSILON);
 
   private RelativeEncoder intakeArmEncoder = intakeArmMotor.getEncoder();
 
-  private PIDController intakeArmPID = new PIDController(IntakeConstants.INTAKE_ARM_kP, IntakeConstants.INTAKE_ARM_kI, IntakeConstants.INTAKE_ARM_kD);
+  // The arm follows a trapezoid profile toward targetPosition (the goal). Each loop the next
+  // profile state goes to the Spark's onboard position loop, with gravity compensation from the
+  // feedforward as arbitrary feedforward volts
+  private final TrapezoidProfile armProfile = new TrapezoidProfile(new TrapezoidProfile.Constraints(
+      IntakeConstants.INTAKE_ARM_MAX_VELOCITY, IntakeConstants.INTAKE_ARM_MAX_ACCELERATION));
+  private TrapezoidProfile.State armSetpoint =
+      new TrapezoidProfile.State(IntakeConstants.INTAKE_ARM_RAISED_POSITION, 0);
+  private final TrapezoidProfile.State armGoal =
+      new TrapezoidProfile.State(IntakeConstants.INTAKE_ARM_RAISED_POSITION, 0);
 
-  private ArmFeedforward intakeArmFeedForward = new ArmFeedforward(0,0,0);
+  private final TunableArmFeedforward intakeArmFeedForward = new TunableArmFeedforward("Intake Arm",
+      IntakeConstants.INTAKE_ARM_kS, IntakeConstants.INTAKE_ARM_kG, IntakeConstants.INTAKE_ARM_kV);
+  private double armFeedforwardVolts = 0;
 
   public double targetPosition;
 
+  // FPGA time the current goal was set, and how long the last deploy and stow took
+  private double armMoveStartSeconds = 0;
+  private boolean armMoving = false;
+  private double deploySeconds = 0;
+  private double stowSeconds = 0;
+  private final AsyncDataLogger.DoubleChannel deployLog = AsyncDataLogger.addDouble("Intake/Arm Deploy Seconds");
+  private final AsyncDataLogger.DoubleChannel stowLog = AsyncDataLogger.addDouble("Intake/Arm Stow Seconds");
+
+  // Simulated arm, driven by the simulated Spark's onboard loop
+  private static final DCMotor armGearbox = DCMotor.getNEO(1);
+  private SparkMaxSim armSim;
+  private SingleJointedArmSim armPhysics;
+
   private boolean intakeOn = false;
   private boolean intakeUp = true;
+  // Input read by readInputs(), and outputs sent by writeOutputs()
+  private double armEncoderPosition = IntakeConstants.INTAKE_ARM_RAISED_POSITION;
+  private double armAppliedOutput = 0;
+  private double rollerOutput = 0;
+  // Reused telemetry snapshot, filled once per loop
+  private final IntakeState state = new IntakeState();
+  private final AsyncDataLogger.StructChannel<IntakeState> stateLog =
+      AsyncDataLogger.addStruct("Intake/State", IntakeState.struct);
+  private final LoopProfiler.Section periodicSection = LoopProfiler.section("Intake Periodic");
 
   /** Creates a new IntakeSubsystem. */
   public IntakeSubsystem() {
@@ -46,33 +99,73 @@ public class IntakeSubsystem extends SubsystemBase {
     SparkMaxConfig intakeArmConfig = new SparkMaxConfig();
       intakeArmConfig.inverted(false);
       intakeArmConfig.idleMode(IdleMode.kBrake);
-      intakeArmConfig.encoder.positionConversionFactor(360/IntakeConstants.GEAR_RATIO);
+      // Arm degrees, and degrees per second, at the output of the gearbox
+      intakeArmConfig.encoder
+          .positionConversionFactor(360.0 / IntakeConstants.GEAR_RATIO)
+          .velocityConversionFactor(360.0 / IntakeConstants.GEAR_RATIO / 60.0);
+      intakeArmConfig.closedLoop
+          .p(IntakeConstants.INTAKE_ARM_kP)
+          .i(IntakeConstants.INTAKE_ARM_kI)
+          .d(IntakeConstants.INTAKE_ARM_kD);
 
     intakeArmMotor.configure(intakeArmConfig, ResetMode.kNoResetSafeParameters, PersistMode.kNoPersistParameters);
     intakeArmEncoder.setPosition(IntakeConstants.INTAKE_ARM_RAISED_POSITION);
+
+    // The rollers are open loop. The arm keeps its position at the loop rate even while disabled,
+    // since the disabled branch re-seeds the profile from the encoder every loop
+    CANBandwidthManager.register("Intake", intakeMotor, Usage.kMinimal);
+    CANBandwidthManager.register("Intake Arm", intakeArmMotor, Usage.kPositionOnly);
     targetPosition = IntakeConstants.INTAKE_ARM_RAISED_POSITION; // start with arm raised
+
+    if (RobotBase.isSimulation()) {
+      // The simulated arm weighs what kG says the real one does: kG volts hold it level, with its
+      // weight acting at half its length
+      double simMassKg = IntakeConstants.INTAKE_ARM_kG * IntakeConstants.GEAR_RATIO * armGearbox.KtNMPerAmp
+          / (armGearbox.rOhms * 9.81 * IntakeConstants.INTAKE_ARM_LENGTH_METERS / 2);
+      armSim = new SparkMaxSim(intakeArmMotor, armGearbox);
+      armPhysics = new SingleJointedArmSim(
+          armGearbox,
+          IntakeConstants.GEAR_RATIO,
+          SingleJointedArmSim.estimateMOI(IntakeConstants.INTAKE_ARM_LENGTH_METERS, simMassKg),
+          IntakeConstants.INTAKE_ARM_LENGTH_METERS,
+          Units.degreesToRadians(IntakeConstants.INTAKE_ARM_MINIMUM),
+          Units.degreesToRadians(IntakeConstants.INTAKE_ARM_MAXIMUM),
+          true,
+          Units.degreesToRadians(IntakeConstants.INTAKE_ARM_RAISED_POSITION));
+    }
+
+    Telemetry.addStruct("Intake State", IntakeState.struct, Rate.CONTROL, Tier.DEBUG, () -> state);
+    Telemetry.addBoolean("Intake Arm At Goal", Rate.CONTROL, Tier.COMPETITION, this::isArmAtGoal);
+    Telemetry.addDouble("Intake Arm Deploy Seconds", Rate.DIAGNOSTIC, Tier.DEBUG, () -> deploySeconds);
+    Telemetry.addDouble("Intake Arm Stow Seconds", Rate.DIAGNOSTIC, Tier.DEBUG, () -> stowSeconds);
+    RobotLoop.register(this);
   }
 
   public void toggleIntake() {
     if (!intakeOn) {
       intakeOn = true;
-      intakeMotor.set(IntakeConstants.INTAKE_SPEED);
+      rollerOutput = IntakeConstants.INTAKE_SPEED;
     }
     else {
       intakeOn = false;
-      intakeMotor.set(0);
+      rollerOutput = 0;
     }
   }
   
   public void setIntakePower(double power) {
     double clampedPower = Math.max(-1.0, Math.min(1.0, power));
     intakeOn = Math.abs(clampedPower) > 0.0;
-    intakeMotor.set(clampedPower * IntakeConstants.INTAKE_SPEED);
+    rollerOutput = clampedPower * IntakeConstants.INTAKE_SPEED;
   }
   
 
   public void setTargetPosition(double position) {
-    targetPosition = Math.max(IntakeConstants.INTAKE_ARM_MINIMUM, Math.min(IntakeConstants.INTAKE_ARM_MAXIMUM, position));
+    double clamped = Math.max(IntakeConstants.INTAKE_ARM_MINIMUM, Math.min(IntakeConstants.INTAKE_ARM_MAXIMUM, position));
+    if (clamped != targetPosition) {
+      armMoveStartSeconds = Timer.getFPGATimestamp();
+      armMoving = true;
+    }
+    targetPosition = clamped;
   }
 
   public void raiseIntake() {
@@ -94,16 +187,87 @@ public class IntakeSubsystem extends SubsystemBase {
     }
   }
 
+  /** @return Arm angle in degrees from horizontal; the encoder is already converted to degrees */
   public double getArmPosition() {
-    return intakeArmEncoder.getPosition() * 360;
+    return armEncoderPosition;
+  }
+
+  /** @return true once the profile has reached the target and the arm is within tolerance of it */
+  public boolean isArmAtGoal() {
+    return Math.abs(armSetpoint.position - targetPosition) <= IntakeConstants.INTAKE_ARM_PROFILE_EPSILON
+        && Math.abs(armSetpoint.velocity) <= IntakeConstants.INTAKE_ARM_PROFILE_EPSILON
+        && Math.abs(armEncoderPosition - targetPosition) <= IntakeConstants.INTAKE_ARM_TOLERANCE;
+  }
+
+  /** @return How long the last move to the lowered position took, in seconds */
+  public double getDeploySeconds() {
+    return deploySeconds;
+  }
+
+  /** @return How long the last move to the raised position took, in seconds */
+  public double getStowSeconds() {
+    return stowSeconds;
+  }
+
+  @Override
+  public void readInputs() {
+    armEncoderPosition = intakeArmEncoder.getPosition();
+    armAppliedOutput = intakeArmMotor.getAppliedOutput();
+  }
+
+  @Override
+  public void writeOutputs() {
+    rollerSetpoints.set(rollerOutput);
+    armSetpoints.setReference(armSetpoint.position, ControlType.kPosition, ClosedLoopSlot.kSlot0, armFeedforwardVolts);
   }
 
   @Override
   public void periodic() {
     // This method will be called once per scheduler run
-    double PIDOutput = intakeArmFeedForward.calculate(
-      Units.degreesToRadians(intakeArmEncoder.getPosition()),0)
-      + intakeArmPID.calculate(getArmPosition(), targetPosition);
-    intakeArmMotor.set(PIDOutput);
+    periodicSection.begin();
+    intakeArmFeedForward.refresh();
+    if (DriverStation.isDisabled()) {
+      // Start the next move from where the arm actually is, not where it was left
+      armSetpoint.position = armEncoderPosition;
+      armSetpoint.velocity = 0;
+    } else {
+      armGoal.position = targetPosition;
+      armSetpoint = armProfile.calculate(TimedRobot.kDefaultPeriod, armSetpoint, armGoal);
+    }
+    armFeedforwardVolts = intakeArmFeedForward.calculate(
+        Units.degreesToRadians(armSetpoint.position), Units.degreesToRadians(armSetpoint.velocity));
+
+    if (armMoving && isArmAtGoal()) {
+      armMoving = false;
+      double seconds = Timer.getFPGATimestamp() - armMoveStartSeconds;
+      if (targetPosition == IntakeConstants.INTAKE_ARM_LOWERED_POSITION) {
+        deploySeconds = seconds;
+        deployLog.log(seconds);
+      } else if (targetPosition == IntakeConstants.INTAKE_ARM_RAISED_POSITION) {
+        stowSeconds = seconds;
+        stowLog.log(seconds);
+      }
+    }
+
+    state.intakeOn = intakeOn;
+    state.intakeUp = intakeUp;
+    state.rollerOutput = rollerOutput;
+    state.armPositionDegrees = getArmPosition();
+    state.armTargetDegrees = targetPosition;
+    state.armOutput = armAppliedOutput;
+    stateLog.log(state);
+    periodicSection.end();
+  }
+
+  @Override
+  public void simulationPeriodic() {
+    // The simulated Spark runs its own position loop from the setpoint and feedforward we sent
+    double busVoltage = RoboRioSim.getVInVoltage();
+    armPhysics.setInputVoltage(armSim.getAppliedOutput() * busVoltage);
+    armPhysics.update(TimedRobot.kDefaultPeriod);
+    armSim.iterate(
+        Units.radiansToDegrees(armPhysics.getVelocityRadPerSec()),
+        busVoltage,
+        TimedRobot.kDefaultPeriod);
   }
 }
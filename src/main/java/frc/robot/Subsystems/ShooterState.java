@@ -0,0 +1,74 @@
+package frc.robot.Subsystems;
+
+import java.nio.ByteBuffer;
+
+import edu.wpi.first.util.struct.Struct;
+import edu.wpi.first.util.struct.StructSerializable;
+
+/**
+ * Shooter telemetry snapshot, published as one packed struct per loop.
+ * The object is reused by {@link ShooterSubsystem}; fields are filled in periodic().
+ */
+public class ShooterState implements StructSerializable {
+  public boolean shooterActive = false;
+  public boolean hoodActive = false;
+  public double shooterOutput = 0.0;
+  public double feederOutput = 0.0;
+  public double hoodTargetPosition = 0.0;
+  public double hoodPosition = 0.0;
+  public double hoodOutput = 0.0;
+
+  public static final Struct<ShooterState> struct = new ShooterStateStruct();
+
+  private static final class ShooterStateStruct implements Struct<ShooterState> {
+    @Override
+    public Class<ShooterState> getTypeClass() {
+      return ShooterState.class;
+    }
+
+    @Override
+    public String getTypeName() {
+      return "ShooterState";
+    }
+
+    @Override
+    public int getSize() {
+      return kSizeBool * 2 + kSizeDouble * 5;
+    }
+
+    @Override
+    public String getSchema() {
+      return "bool shooterActive;bool hoodActive;double shooterOutput;double feederOutput;"
+          + "double hoodTargetPosition;double hoodPosition;double hoodOutput";
+    }
+
+    @Override
+    public ShooterState unpack(ByteBuffer bb) {
+      ShooterState state = new ShooterState();
+      unpackInto(state, bb);
+      return state;
+    }
+
+    @Override
+    public void unpackInto(ShooterState out, ByteBuffer bb) {
+      out.shooterActive = bb.get() != 0;
+      out.hoodActive = bb.get() != 0;
+      out.shooterOutput = bb.getDouble();
+      out.feederOutput = bb.getDouble();
+      out.hoodTargetPosition = bb.getDouble();
+      out.hoodPosition = bb.getDouble();
+      out.hoodOutput = bb.getDouble();
+    }
+
+    @Override
+    public void pack(ByteBuffer bb, ShooterState value) {
+      bb.put((byte) (value.shooterActive ? 1 : 0));
+      bb.put((byte) (value.hoodActive ? 1 : 0));
+      bb.putDouble(value.shooterOutput);
+      bb.putDouble(value.feederOutput);
+      bb.putDouble(value.hoodTargetPosition);
+      bb.putDouble(value.hoodPosition);
+      bb.putDouble(value.hoodOutput);
+    }
+  }
+}
@@ -3,47 +3,69 @@
 // the WPILib BSD license file in the root directory of this project.
 
 package frc.robot.Subsystems;
-import edu.wpi.first.math.controller.PIDController;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
-import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.math.system.plant.LinearSystemId;
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.DCMotorSim;
+import edu.wpi.first.wpilibj.simulation.RoboRioSim;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import com.revrobotics.PersistMode;
+import com.revrobotics.ResetMode;
+import com.revrobotics.sim.SparkMaxSim;
 import com.revrobotics.spark.SparkMax;
-import com.revrobotics.spark.SparkBase.PersistMode;
-import com.revrobotics.spark.SparkBase.ResetMode;
+import com.revrobotics.spark.SparkBase.ControlType;
 import com.revrobotics.spark.SparkLowLevel.MotorType;
 import com.revrobotics.spark.config.SparkMaxConfig;
 import com.revrobotics.spark.config.SparkBaseConfig.IdleMode;
 
+import frc.lib.AsyncDataLogger;
+import frc.lib.CANBandwidthManager;
+import frc.lib.CANSparkUtil.Usage;
+import frc.lib.LoopProfiler;
+import frc.lib.RobotLoop;
+import frc.lib.SparkSetpointCache;
+import frc.lib.Telemetry;
+import frc.lib.Telemetry.Rate;
+import frc.lib.Telemetry.Tier;
 import frc.robot.Constants.ShooterConstants;
 
-import java.util.function.BooleanSupplier;
-import java.util.function.DoubleSupplier;
-
-import com.revrobotics.spark.SparkMax;
-import com.revrobotics.spark.SparkBase.PersistMode;
-import com.revrobotics.spark.SparkBase.ResetMode;
-import com.revrobotics.spark.SparkLowLevel.MotorType;
-import com.revrobotics.spark.config.SparkMaxConfig;
-import com.revrobotics.spark.config.SparkBaseConfig.IdleMode;
-
-import frc.robot.Constants.ShooterConstants;
-
-public class ShooterSubsystem extends SubsystemBase {
+public class ShooterSubsystem extends SubsystemBase implements RobotLoop.Phased {
 
   public boolean isShooterActive = false; //Shooter True
 
   SparkMax shooterMotor = new SparkMax(ShooterConstants.SHOOTER_ID, MotorType.kBrushless);
   SparkMax feederMotor = new SparkMax(ShooterConstants.FEEDER_ID, MotorType.kBrushless);
   SparkMax hoodMotor = new SparkMax(ShooterConstants.HOOD_ID, MotorType.kBrushless);
-  
-  private final PIDController hoodController = new PIDController(
-      ShooterConstants.HOOD_KP,
-      0.0,
-      0.0
-  );
+  // Outputs are only sent when they change (or to keep them alive)
+  private final SparkSetpointCache shooterSetpoints = new SparkSetpointCache(shooterMotor, ShooterConstants.OUTPUT_EPSILON);
+  private final SparkSetpointCache feederSetpoints = new SparkSetpointCache(feederMotor, ShooterConstants.OUTPUT_EPSILON);
+  private final SparkSetpointCache hoodSetpoints = new SparkSetpointCache(hoodMotor, ShooterConstants.HOOD_POSITION_EPSILON);
+
+  // The hood runs on the Spark's own MAXMotion position loop; nothing is sent until a target is set
   private double hoodTargetPosition = ShooterConstants.HOOD_ANGLE_LOW;
-  private boolean hoodActive = false;
+  private boolean hoodTargetSet = false;
+  // FPGA time the current target was set, and how long the last move took to reach its target
+  private double hoodMoveStartSeconds = 0;
+  private boolean hoodSettling = false;
+  private double hoodSettleSeconds = 0;
+  private final AsyncDataLogger.DoubleChannel hoodSettleLog = AsyncDataLogger.addDouble("Shooter/Hood Settle Seconds");
+  // Simulated hood, driven by the simulated Spark's onboard loop
+  private static final DCMotor hoodGearbox = DCMotor.getNEO(1);
+  private SparkMaxSim hoodSim;
+  private DCMotorSim hoodPhysics;
+  // Inputs read by readInputs(), and outputs sent by writeOutputs()
+  private double hoodPosition = 0;
+  private double shooterOutput = 0;
+  private double feederOutput = 0;
+  private double hoodOutput = 0;
+  // Reused telemetry snapshot, filled once per loop
+  private final ShooterState state = new ShooterState();
+  private final AsyncDataLogger.StructChannel<ShooterState> stateLog =
+      AsyncDataLogger.addStruct("Shooter/State", ShooterState.struct);
+  private final LoopProfiler.Section periodicSection = LoopProfiler.section("Shooter Periodic");
 
   public enum HoodAngle {
     LOW,
@@ -64,22 +86,48 @@ public class ShooterSubsystem extends SubsystemBase {
     SparkMaxConfig hoodConfig = new SparkMaxConfig();
       hoodConfig.inverted(false);
       hoodConfig.idleMode(IdleMode.kBrake);
+      // Position loop on the Spark, same gain and output limit the roboRIO loop used, with a
+      // MAXMotion trapezoid profile so moves start and stop smoothly
+      hoodConfig.closedLoop
+          .p(ShooterConstants.HOOD_KP)
+          .outputRange(-ShooterConstants.HOOD_MAX_OUTPUT, ShooterConstants.HOOD_MAX_OUTPUT);
+      hoodConfig.closedLoop.maxMotion
+          .maxVelocity(ShooterConstants.HOOD_MAX_VELOCITY_RPM)
+          .maxAcceleration(ShooterConstants.HOOD_MAX_ACCELERATION_RPM_PER_SECOND)
+          .allowedClosedLoopError(ShooterConstants.HOOD_TOLERANCE);
 
     shooterMotor.configure(shootConfig, ResetMode.kNoResetSafeParameters, PersistMode.kNoPersistParameters);
     feederMotor.configure(feedConfig, ResetMode.kNoResetSafeParameters, PersistMode.kNoPersistParameters);
     hoodMotor.configure(hoodConfig, ResetMode.kNoResetSafeParameters, PersistMode.kNoPersistParameters);
 
-    hoodController.setTolerance(ShooterConstants.HOOD_TOLERANCE);
+    // Flywheel data is only needed while it spins. The hood keeps its position at the loop rate
+    // even while disabled, so isHoodAtTarget() is current the moment the robot is enabled
+    CANBandwidthManager.register("Shooter", shooterMotor, Usage.kMinimal)
+        .whileActive(Usage.kVelocityOnly, () -> isShooterActive);
+    CANBandwidthManager.register("Feeder", feederMotor, Usage.kMinimal);
+    CANBandwidthManager.register("Hood", hoodMotor, Usage.kPositionOnly);
+
+    Telemetry.addBoolean("Is Shooter Active", Rate.CONTROL, Tier.COMPETITION, () -> isShooterActive);
+    Telemetry.addStruct("Shooter State", ShooterState.struct, Rate.CONTROL, Tier.DEBUG, () -> state);
+    if (RobotBase.isSimulation()) {
+      hoodSim = new SparkMaxSim(hoodMotor, hoodGearbox);
+      hoodPhysics = new DCMotorSim(
+          LinearSystemId.createDCMotorSystem(hoodGearbox, ShooterConstants.HOOD_SIM_MOI_KG_M2, 1.0), hoodGearbox);
+    }
+
+    Telemetry.addBoolean("Hood At Target", Rate.CONTROL, Tier.COMPETITION, this::isHoodAtTarget);
+    Telemetry.addDouble("Hood Settle Seconds", Rate.DIAGNOSTIC, Tier.DEBUG, () -> hoodSettleSeconds);
+    RobotLoop.register(this);
   }
 
     public void toggleShooter() {
       if (!isShooterActive) {
         isShooterActive = true;
-        shooterMotor.set(ShooterConstants.SHOOTER_SPEED);
+        shooterOutput = ShooterConstants.SHOOTER_SPEED;
       }
       else {
         isShooterActive = false;
-        shooterMotor.set(0);
+        shooterOutput = 0;
       }
     }
 
@@ -87,10 +135,10 @@ public class ShooterSubsystem extends SubsystemBase {
     public void runShooter(boolean shooterOn) {
       if (shooterOn) {
         isShooterActive = true;
-        shooterMotor.set(ShooterConstants.SHOOTER_SPEED);
+        shooterOutput = ShooterConstants.SHOOTER_SPEED;
       } else {
         isShooterActive = false;
-        shooterMotor.set(0);
+        shooterOutput = 0;
       }
     }
 
@@ -100,48 +148,99 @@ public class ShooterSubsystem extends SubsystemBase {
     }
 
     public void runFeederSpeed(double speed) {
-      feederMotor.set(speed);
+      feederOutput = speed;
     }
 
     public void setHoodAngle(HoodAngle angle) {
       switch (angle) {
         case LOW:
-          hoodTargetPosition = ShooterConstants.HOOD_ANGLE_LOW;
+          setHoodPosition(ShooterConstants.HOOD_ANGLE_LOW);
           break;
         case HIGH:
-          hoodTargetPosition = ShooterConstants.HOOD_ANGLE_HIGH;
+          setHoodPosition(ShooterConstants.HOOD_ANGLE_HIGH);
           break;
         default:
-          hoodTargetPosition = ShooterConstants.HOOD_ANGLE_HIGH;
+          setHoodPosition(ShooterConstants.HOOD_ANGLE_HIGH);
+      }
+    }
+
+    /**
+     * Moves the hood to any position between {@code HOOD_ANGLE_LOW} and {@code HOOD_ANGLE_HIGH}.
+     * The Spark profiles and holds the position itself; the setpoint is sent in writeOutputs().
+     * @param position Target in hood motor rotations, clamped to the hood's range
+     */
+    public void setHoodPosition(double position) {
+      double clamped = Math.max(ShooterConstants.HOOD_ANGLE_LOW, Math.min(ShooterConstants.HOOD_ANGLE_HIGH, position));
+      if (hoodTargetSet && clamped == hoodTargetPosition) {
+        return;
       }
-      hoodController.reset();
-      hoodActive = true;
+      hoodTargetPosition = clamped;
+      hoodTargetSet = true;
+      hoodMoveStartSeconds = Timer.getFPGATimestamp();
+      hoodSettling = true;
     }
 
+    /** @return The hood position read at the start of this loop */
     public double getHoodPosition() {
-      return hoodMotor.getEncoder().getPosition();
+      return hoodPosition;
+    }
+
+    /** @return How long the last hood move took to reach its target, in seconds */
+    public double getHoodSettleSeconds() {
+      return hoodSettleSeconds;
     }
 
+    /** @return true once the hood is within tolerance of its target; false until it is given one */
+    public boolean isHoodAtTarget() {
+      return hoodTargetSet && Math.abs(hoodPosition - hoodTargetPosition) <= ShooterConstants.HOOD_TOLERANCE;
+    }
+
+  @Override
+  public void readInputs() {
+    hoodPosition = hoodMotor.getEncoder().getPosition();
+    hoodOutput = hoodMotor.getAppliedOutput();
+  }
+
+  @Override
+  public void writeOutputs() {
+    shooterSetpoints.set(shooterOutput);
+    feederSetpoints.set(feederOutput);
+    if (hoodTargetSet) {
+      hoodSetpoints.setReference(hoodTargetPosition, ControlType.kMAXMotionPositionControl);
+    }
+  }
+
   @Override
   public void periodic() {
     // This method will be called once per scheduler run
-    SmartDashboard.putBoolean("Is Shooter Active", isShooterActive);
-    SmartDashboard.putNumber("Hood Target Position", hoodTargetPosition);
-    SmartDashboard.putNumber("Hood Position", getHoodPosition());
-
-    
-    if (hoodActive) {
-      double output = hoodController.calculate(getHoodPosition(), hoodTargetPosition);
-      output = Math.max(-ShooterConstants.HOOD_MAX_OUTPUT, Math.min(ShooterConstants.HOOD_MAX_OUTPUT, output));
-
-      if (hoodController.atSetpoint()) {
-        hoodMotor.set(0);
-        hoodActive = false;
-      } else {
-        hoodMotor.set(output);
-      }
-    } else {
-      hoodMotor.set(0);
+    periodicSection.begin();
+    boolean hoodAtTarget = isHoodAtTarget();
+    if (hoodSettling && hoodAtTarget) {
+      hoodSettling = false;
+      hoodSettleSeconds = Timer.getFPGATimestamp() - hoodMoveStartSeconds;
+      hoodSettleLog.log(hoodSettleSeconds);
     }
+
+    state.shooterActive = isShooterActive;
+    state.hoodActive = hoodTargetSet && !hoodAtTarget;
+    state.shooterOutput = shooterOutput;
+    state.feederOutput = feederOutput;
+    state.hoodTargetPosition = hoodTargetPosition;
+    state.hoodPosition = hoodPosition;
+    state.hoodOutput = hoodOutput;
+    stateLog.log(state);
+    periodicSection.end();
+  }
+
+  @Override
+  public void simulationPeriodic() {
+    // The simulated Spark runs its own closed loop and MAXMotion profile from the setpoint we sent
+    double busVoltage = RoboRioSim.getVInVoltage();
+    hoodPhysics.setInputVoltage(hoodSim.getAppliedOutput() * busVoltage);
+    hoodPhysics.update(TimedRobot.kDefaultPeriod);
+    hoodSim.iterate(
+        Units.radiansPerSecondToRotationsPerMinute(hoodPhysics.getAngularVelocityRadPerSec()),
+        busVoltage,
+        TimedRobot.kDefaultPeriod);
   }
 }
\ No newline at end of file
@@ -4,33 +4,67 @@
 
 package frc.robot.Subsystems;
 
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.StatusSignal;
 import com.ctre.phoenix6.configs.Pigeon2Configuration;
 import com.ctre.phoenix6.hardware.Pigeon2;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import edu.wpi.first.math.Matrix;
 import edu.wpi.first.math.VecBuilder;
 import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
-import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
 import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
+import edu.wpi.first.units.measure.Angle;
+import edu.wpi.first.units.measure.AngularVelocity;
 import edu.wpi.first.networktables.NetworkTableInstance;
 import edu.wpi.first.networktables.StructArrayPublisher;
+import edu.wpi.first.wpilibj.DataLogManager;
 import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj.smartdashboard.Field2d;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.lib.AsyncDataLogger;
+import frc.lib.CANBusLoad;
+import frc.lib.LimelightCamera;
 import frc.lib.LimelightHelpers;
+import frc.lib.LimelightOrientationPublisher;
+import frc.lib.LoopProfiler;
+import frc.lib.MutableSwerveKinematics;
+import frc.lib.OdometryThread;
+import frc.lib.PoseHistory;
+import frc.lib.RobotLoop;
+import frc.lib.Telemetry;
+import frc.lib.Telemetry.Rate;
+import frc.lib.Telemetry.Tier;
 import frc.robot.Constants;
 import frc.robot.Constants.FieldConstants;
 import frc.robot.Constants.SwerveConstants;
 import frc.robot.Constants.SwerveConstants.ModuleData;
+import frc.robot.Constants.VisionConstants;
 import frc.robot.SwerveModule;
+import frc.robot.SwerveModuleIO;
+import frc.robot.SwerveModuleIOSim;
+import frc.robot.SwerveModuleIOSpark;
+import frc.robot.SwerveModuleInputs;
 
 
 // Manges swerve drivetrain hardware, odometry, and vision-assisted pose up dates.
-public class SwerveSubsystem extends SubsystemBase {
+public class SwerveSubsystem extends SubsystemBase implements RobotLoop.Phased {
   private final Pigeon2 pigeon;
 
   private SwerveDrivePoseEstimator odometry;
@@ -38,6 +72,36 @@ public class SwerveSubsystem extends SubsystemBase {
 
   private Field2d field;
 
+  // Samples the module encoders and gyro faster than the 20ms robot loop. periodic() drains
+  // the queued samples into the pose estimator in one batch.
+  private final OdometryThread odometryThread =
+      new OdometryThread(SwerveConstants.odometryFrequencyHz, SwerveConstants.odometryQueueCapacity);
+  private final StatusSignal<Angle> odometryYawSignal;
+  private final BaseStatusSignal[] odometryPhoenixSignals;
+  private final int yawSampleIndex;
+  private final int[] driveSampleIndex = new int[4];
+  private final int[] angleSampleIndex = new int[4];
+  private final SwerveModulePosition[] sampledPositions = new SwerveModulePosition[4];
+  // The angle each sampled position holds, so a Rotation2d is only built when it changes
+  private final double[] sampledAngleDegrees = new double[4];
+  // The last applied sample's Pigeon yaw, which resetOdometry re-seeds the estimator with
+  private double sampledPigeonYawDegrees;
+  private boolean hasOdometrySample;
+  private final OdometryThread.SampleConsumer odometrySampleConsumer = this::applyOdometrySample;
+
+  // Gyro signals the main loop reads, refreshed together once per loop so every reader in a loop
+  // sees the same samples. The odometry thread refreshes its own yaw signal. The CANcoders only
+  // send at 1 Hz, so the modules read them at that rate instead of in this group.
+  private final StatusSignal<Angle> loopYawSignal;
+  private final StatusSignal<AngularVelocity> loopYawRateSignal;
+  private final BaseStatusSignal[] loopPhoenixSignals;
+  // Yaw rate is only read once per loop, to extrapolate yaw and for vision, so it is sent at the
+  // loop rate rather than the odometry rate
+  private static final double YAW_RATE_FREQUENCY_HZ = 1.0 / TimedRobot.kDefaultPeriod;
+  // This loop's Pigeon yaw (before inversion), extrapolated to when the signals were refreshed
+  private double loopPigeonYawDegrees;
+  private double loopPigeonYawRateDegreesPerSecond;
+
   /* NetworkTable Publishers for Swerve Module State Monitoring
    * These publishers send swerve module state data to NetworkTables for visualization
    * and debugging. The data can be viewed in tools like AdvantageScope, Shuffleboard,
@@ -58,6 +122,59 @@ public class SwerveSubsystem extends SubsystemBase {
   private final StructArrayPublisher<SwerveModuleState> desiredSwerveDataPublisher = NetworkTableInstance.getDefault()
   .getStructArrayTopic("Desired Swerve States", SwerveModuleState.struct).publish();
 
+  // Preallocated kinematics so driving allocates nothing in steady state
+  private final MutableSwerveKinematics driveKinematics = new MutableSwerveKinematics(
+      SwerveConstants.moduleData[0].location(),
+      SwerveConstants.moduleData[1].location(),
+      SwerveConstants.moduleData[2].location(),
+      SwerveConstants.moduleData[3].location());
+  // Only used to publish the last desired states once per loop
+  private final SwerveModuleState[] desiredStates = {
+      new SwerveModuleState(), new SwerveModuleState(), new SwerveModuleState(), new SwerveModuleState()};
+
+  // Where the robot was and how fast it was moving at every odometry sample, for latency
+  // compensation (vision gating, shooting on the move)
+  private final PoseHistory poseHistory = new PoseHistory(
+      (int) Math.ceil(SwerveConstants.poseHistorySeconds * SwerveConstants.odometryFrequencyHz));
+  private final double[] measuredModuleSpeeds = new double[4];
+  private final double[] measuredModuleAngles = new double[4];
+  // Robot-relative vx, vy, omega measured this loop
+  private final double[] measuredChassisSpeeds = new double[3];
+  private final double[] historySample = new double[6];
+
+  // Vision cameras feeding the pose estimator
+  private final LimelightCamera[] cameras = {
+      new LimelightCamera(VisionConstants.LIMELIGHT_A_NAME, VisionConstants.LIMELIGHT_A_TRUST),
+      new LimelightCamera(VisionConstants.LIMELIGHT_B_NAME, VisionConstants.LIMELIGHT_B_TRUST)};
+  private final LimelightOrientationPublisher orientationPublisher =
+      new LimelightOrientationPublisher(VisionConstants.LIMELIGHT_A_NAME, VisionConstants.LIMELIGHT_B_NAME);
+  // Each module's inputs object, in module order, for the packed telemetry struct array
+  private final SwerveModuleInputs[] moduleInputs = new SwerveModuleInputs[4];
+  // Measured states copied from the modules' cached states each loop for publishing and logging
+  private final SwerveModuleState[] measuredStates = {
+      new SwerveModuleState(), new SwerveModuleState(), new SwerveModuleState(), new SwerveModuleState()};
+
+  // Loop timing for periodic() as a whole and for the vision update inside it
+  private final LoopProfiler.Section periodicSection = LoopProfiler.section("Swerve Periodic");
+  private final LoopProfiler.Section visionSection = LoopProfiler.section("Swerve Vision");
+
+  // On-robot log channels, written from periodic()
+  private final AsyncDataLogger.StructArrayChannel<SwerveModuleInputs> moduleInputsLog =
+      AsyncDataLogger.addStructArray("Swerve/Module Inputs", SwerveModuleInputs.struct, 4);
+  private final AsyncDataLogger.StructArrayChannel<SwerveModuleState> measuredStatesLog =
+      AsyncDataLogger.addStructArray("Swerve/States", SwerveModuleState.struct, 4);
+  private final AsyncDataLogger.StructArrayChannel<SwerveModuleState> desiredStatesLog =
+      AsyncDataLogger.addStructArray("Swerve/Desired States", SwerveModuleState.struct, 4);
+  private final AsyncDataLogger.StructChannel<Pose2d> poseLog =
+      AsyncDataLogger.addStruct("Swerve/Pose", Pose2d.struct);
+
+  // How long module configuration took at boot, in seconds
+  private final double[] moduleBootSeconds = new double[4];
+  private double modulesBootSeconds;
+
+  // Reused per-frame vision std devs (x, y, theta)
+  private final Matrix<N3, N1> visionStdDevs = VecBuilder.fill(0, 0, VisionConstants.MEGATAG2_THETA_STD_DEV);
+
   /** Creates a new SwerveSubsystem. */
   public SwerveSubsystem() { 
     //instantiates new pigeon gyro, wipes it, and zeros it
@@ -65,68 +182,227 @@ public class SwerveSubsystem extends SubsystemBase {
     pigeon.getConfigurator().apply(new Pigeon2Configuration()); 
     zeroGyro();
 
-    //Creates all four swerve modules into a swerve drive
-    mSwerveMods = new SwerveModule[4];
-    for (int i = 0; i < 4; i++){
-      ModuleData data = SwerveConstants.moduleData[i];
-      mSwerveMods[i] = new SwerveModule(i, data);
-    }
+    //Creates all four swerve modules into a swerve drive, on real or simulated hardware.
+    //Each module waits on its own devices, so they're configured at the same time
+    mSwerveMods = createModules();
+
+    //groups yaw with yaw rate so the loop refreshes them in one call
+    loopYawSignal = pigeon.getYaw().clone();
+    loopYawRateSignal = pigeon.getAngularVelocityZWorld();
+    loopYawRateSignal.setUpdateFrequency(YAW_RATE_FREQUENCY_HZ);
+    loopPhoenixSignals = new BaseStatusSignal[] {loopYawSignal, loopYawRateSignal};
+    refreshLoopSignals();
 
     //creates new swerve odometry (odometry is where the robot is on the field)
     odometry = new SwerveDrivePoseEstimator(Constants.SwerveConstants.swerveKinematics, getYaw(), getPositions(), new Pose2d());
 
+    //registers the signals the odometry thread samples, then starts it
+    odometryYawSignal = pigeon.getYaw();
+    odometryYawSignal.setUpdateFrequency(SwerveConstants.odometryFrequencyHz);
+    declareBusLoad();
+    odometryPhoenixSignals = new BaseStatusSignal[] {odometryYawSignal};
+    odometryThread.setRefreshAction(() -> BaseStatusSignal.refreshAll(odometryPhoenixSignals));
+    yawSampleIndex = odometryThread.registerSignal(odometryYawSignal::getValueAsDouble);
+    for (SwerveModule mod : mSwerveMods) {
+      driveSampleIndex[mod.moduleNumber] = odometryThread.registerSignal(mod::getRawDriveEncoder);
+      angleSampleIndex[mod.moduleNumber] = odometryThread.registerSignal(mod::getRawTurnEncoder);
+      sampledPositions[mod.moduleNumber] = new SwerveModulePosition();
+      sampledAngleDegrees[mod.moduleNumber] = Double.NaN;
+    }
+    odometryThread.start();
+
     //puts out the field
     field = new Field2d();
     SmartDashboard.putData("Field", field);
+
+    registerTelemetry();
+    RobotLoop.register(this);
+  }
+
+  /**
+   * Declares the Pigeon's frames, as configured in the constructor, for the CAN bus budget. Its
+   * other signals stay at their Phoenix 6 default rates.
+   */
+  private static void declareBusLoad() {
+    CANBusLoad.register("Pigeon2 (" + SwerveConstants.PIGEON_ID + ")")
+        .frame("Yaw, Pitch and Roll", 1000.0 / SwerveConstants.odometryFrequencyHz)
+        .frame("Angular Velocity", 1000.0 / YAW_RATE_FREQUENCY_HZ)
+        .frame("Other Signals", 250);
+  }
+
+  /**
+   * Builds the modules on one thread each and waits for all of them. Configuration is mostly
+   * waiting for CAN acknowledgements, so four modules take about as long as the slowest one.
+   * How long each module and the whole set took is kept for telemetry.
+   */
+  private SwerveModule[] createModules() {
+    // The real module hardware's frames, declared in simulation too so the bus budget test
+    // checks the same load the robot puts on the bus
+    for (ModuleData data : SwerveConstants.moduleData) {
+      SwerveModuleIOSpark.declareBusLoad(data);
+    }
+
+    long start = System.nanoTime();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<CompletableFuture<SwerveModule>> futures = new ArrayList<>();
+      for (int i = 0; i < 4; i++){
+        final int moduleNumber = i;
+        futures.add(CompletableFuture.supplyAsync(() -> {
+          long moduleStart = System.nanoTime();
+          ModuleData data = SwerveConstants.moduleData[moduleNumber];
+          SwerveModuleIO io = RobotBase.isReal() ? new SwerveModuleIOSpark(data) : new SwerveModuleIOSim(data);
+          SwerveModule module = new SwerveModule(moduleNumber, data, io);
+          moduleBootSeconds[moduleNumber] = (System.nanoTime() - moduleStart) * 1e-9;
+          return module;
+        }, executor));
+      }
+      SwerveModule[] modules = new SwerveModule[4];
+      for (int i = 0; i < 4; i++){
+        try {
+          modules[i] = futures.get(i).join();
+        } catch (CompletionException e) {
+          // Rethrow what the module threw, the same as if it had been built inline. The
+          // suppliers can't throw checked exceptions, so the cause is unchecked.
+          if (e.getCause() instanceof RuntimeException cause) {
+            throw cause;
+          }
+          if (e.getCause() instanceof Error cause) {
+            throw cause;
+          }
+          throw e;
+        }
+      }
+      return modules;
+    } finally {
+      executor.shutdown();
+      modulesBootSeconds = (System.nanoTime() - start) * 1e-9;
+      DataLogManager.log(String.format("Swerve modules configured in %.3f s (%.3f, %.3f, %.3f, %.3f)",
+          modulesBootSeconds, moduleBootSeconds[0], moduleBootSeconds[1], moduleBootSeconds[2], moduleBootSeconds[3]));
+    }
+  }
+
+  // Keys are built once here; Telemetry publishes them at their own rates from the inputs snapshot
+  private void registerTelemetry() {
+    Telemetry.addDouble("Pigeon Yaw", Rate.CONTROL, Tier.COMPETITION, () -> loopPigeonYawDegrees);
+    Telemetry.addDouble("Odometry Dropped Samples", Rate.DIAGNOSTIC, Tier.COMPETITION, odometryThread::getDroppedSamples);
+    Telemetry.addDouble("Odometry Late Samples", Rate.DIAGNOSTIC, Tier.COMPETITION, odometryThread::getLateSamples);
+    Telemetry.addDouble("Swerve Boot Seconds", Rate.SLOW, Tier.COMPETITION, () -> modulesBootSeconds);
+    for (int i = 0; i < 4; i++){
+      final int moduleNumber = i;
+      Telemetry.addDouble("Mod " + i + " Boot Seconds", Rate.SLOW, Tier.DEBUG, () -> moduleBootSeconds[moduleNumber]);
+    }
+
+    // The absolute angle as 0-360, which is what gets copied into the module offsets when zeroing
+    // in the pits, so it stays published in competition
+    for (SwerveModule mod : mSwerveMods) {
+      SwerveModuleInputs inputs = mod.getInputs();
+      Telemetry.addDouble("Mod " + mod.moduleNumber + " New Cancoder Offset", Rate.DIAGNOSTIC, Tier.COMPETITION, () -> {
+        double canCoderDegrees = inputs.absoluteAngleDegrees;
+        return canCoderDegrees < 0 ? 360 + canCoderDegrees : canCoderDegrees;
+      });
+    }
+
+    // Every module's sensor snapshot as one struct array instead of a topic per module per value
+    for (SwerveModule mod : mSwerveMods) {
+      moduleInputs[mod.moduleNumber] = mod.getInputs();
+    }
+    Telemetry.addStructArray("Swerve Module Inputs", SwerveModuleInputs.struct, Rate.CONTROL, Tier.DEBUG, () -> moduleInputs);
   }
   
 
 
-  private void updateOdometryWithVision (String limelightName){
-    boolean doRejectUpdate = false;
-      LimelightHelpers.SetRobotOrientation(limelightName, odometry.getEstimatedPosition().getRotation().getDegrees(),0,0,0,0,0);
-      LimelightHelpers.PoseEstimate mt2 = LimelightHelpers.getBotPoseEstimate_wpiBlue_MegaTag2(limelightName);
-      if (mt2 == null){
-        return;
+  /**
+   * Adds every new MegaTag2 frame from both Limelights to the pose estimator. Each camera queues
+   * all frames published since the last loop; frames already delivered on an earlier loop are
+   * skipped, and the two cameras' frames are merged so they are applied in capture order.
+   */
+  private void updateOdometryWithVision(){
+    // Send the heading MegaTag2 needs to both cameras, then flush once for the whole loop
+    double yawRateDegreesPerSecond = (SwerveConstants.invertPigeon ? -1 : 1) * loopPigeonYawRateDegreesPerSecond;
+    orientationPublisher.set(odometry.getEstimatedPosition().getRotation().getDegrees(), yawRateDegreesPerSecond);
+    orientationPublisher.flush();
+
+    for (LimelightCamera camera : cameras) {
+      camera.poll();
+    }
+
+    boolean spinningTooFast = Math.abs(yawRateDegreesPerSecond) > 720;
+    while (true) {
+      // Each camera's frames are already in time order, so take the oldest head frame
+      LimelightCamera camera = null;
+      for (LimelightCamera candidate : cameras) {
+        LimelightHelpers.MutablePoseEstimate head = candidate.peek();
+        if (head != null && (camera == null || head.timestampSeconds < camera.peek().timestampSeconds)) {
+          camera = candidate;
+        }
       }
-      if(Math.abs(pigeon.getAngularVelocityZWorld().getValueAsDouble())> 720)
-      {
-        doRejectUpdate = true;
+      if (camera == null){
+        break;
       }
-      if(mt2.tagCount == 0)
-      {
-        doRejectUpdate = true;
+
+      LimelightHelpers.MutablePoseEstimate mt2 = camera.next();
+      if (spinningTooFast || mt2.tagCount == 0){
+        camera.markRejected();
+        continue;
+      }
+      // Trust depends on how many tags were seen, how far away and how ambiguous they were
+      double xyStdDev = camera.getTrustModel().getXYStdDev(mt2);
+      if (Double.isNaN(xyStdDev)){
+        camera.markRejected();
+        continue;
       }
-      if(!doRejectUpdate)
-      {
-        odometry.setVisionMeasurementStdDevs(VecBuilder.fill (.7,.7,99999));// need to measure
-        odometry.addVisionMeasurement(
-          mt2.pose,
-          mt2.timestampSeconds);
+      if (poseHistory.sampleAt(mt2.timestampSeconds, historySample)){
+        // How far the vision pose is from where odometry thinks we were when the frame was taken
+        camera.setOdometryError(
+            Math.hypot(mt2.x - historySample[PoseHistory.X], mt2.y - historySample[PoseHistory.Y]));
       }
+      visionStdDevs.set(0, 0, xyStdDev);
+      visionStdDevs.set(1, 0, xyStdDev);
+      odometry.addVisionMeasurement(
+        mt2.toPose2d(),
+        mt2.timestampSeconds,
+        visionStdDevs);
+      camera.markApplied(xyStdDev);
     }
 
+    for (LimelightCamera camera : cameras) {
+      camera.logSummary();
+    }
+  }
 
-  public void drive(double xInput, double yInput, double rotationInput, boolean isFieldOriented){
-    ChassisSpeeds desiredSpeeds;
 
+  public void drive(double xInput, double yInput, double rotationInput, boolean isFieldOriented){
     if(isFieldOriented){
-      desiredSpeeds = ChassisSpeeds.fromFieldRelativeSpeeds(xInput, yInput, rotationInput, getYaw());
+      // Same rotation as ChassisSpeeds.fromFieldRelativeSpeeds, without the allocations
+      double yawRadians = Math.toRadians(getYawDegrees());
+      double cos = Math.cos(yawRadians);
+      double sin = Math.sin(yawRadians);
+      driveFromSpeeds(xInput * cos + yInput * sin, -xInput * sin + yInput * cos, rotationInput, true);
     }
     else{
-      desiredSpeeds = new ChassisSpeeds(xInput, yInput, rotationInput);
+      driveFromSpeeds(xInput, yInput, rotationInput, true);
     }
-    driveFromChassisSpeeds(desiredSpeeds, true);
   }
  
   public void driveFromChassisSpeeds(ChassisSpeeds driveSpeeds, boolean isOpenLoop){
-    SwerveModuleState[] desiredStates = SwerveConstants.swerveKinematics.toSwerveModuleStates(driveSpeeds);
-    SwerveDriveKinematics.desaturateWheelSpeeds(desiredStates, SwerveConstants.maxSpeed);
+    driveFromSpeeds(
+        driveSpeeds.vxMetersPerSecond, driveSpeeds.vyMetersPerSecond, driveSpeeds.omegaRadiansPerSecond, isOpenLoop);
+  }
 
-    desiredSwerveDataPublisher.set(desiredStates);
+  /**
+   * Drives with robot-relative speeds. Kinematics, desaturation, optimization and the motor
+   * writes all work on preallocated primitives, so this allocates nothing.
+   */
+  public void driveFromSpeeds(double vxMetersPerSecond, double vyMetersPerSecond, double omegaRadiansPerSecond, boolean isOpenLoop){
+    driveKinematics.toModuleStates(vxMetersPerSecond, vyMetersPerSecond, omegaRadiansPerSecond);
+    driveKinematics.desaturate(SwerveConstants.maxSpeed);
 
     for (SwerveModule mod : mSwerveMods) {
-      mod.setDesiredState(desiredStates[mod.moduleNumber], isOpenLoop); //NEED CONFIRM
+      mod.setDesiredState(
+          driveKinematics.getSpeed(mod.moduleNumber),
+          driveKinematics.getAngleDegrees(mod.moduleNumber),
+          isOpenLoop);
     }
   }
 
@@ -138,8 +414,23 @@ public class SwerveSubsystem extends SubsystemBase {
     return odometry.getEstimatedPosition();
   }
 
+  /**
+   * Moves the pose estimate to a new pose and forgets the pose history, so latency-compensated
+   * lookups never interpolate across the jump. The estimator and history are only touched from
+   * the robot loop (the odometry thread just queues samples), so they change together here.
+   * The estimator is re-seeded with the last sample it was given, so the next sample's deltas
+   * are measured from the same readings.
+   */
   public void resetOdometry(Pose2d pose) {
-    odometry.resetPosition(getYaw(), getPositions(), pose);
+    // Apply samples taken before the reset first, so none of them land in the cleared history
+    odometryThread.drain(odometrySampleConsumer);
+    if (hasOdometrySample) {
+      odometry.resetPosition(yawFromDegrees(sampledPigeonYawDegrees), sampledPositions, pose);
+    }
+    else {
+      odometry.resetPosition(getYaw(), getPositions(), pose);
+    }
+    poseHistory.clear();
   }
 
 
@@ -170,17 +461,85 @@ public class SwerveSubsystem extends SubsystemBase {
   public void zeroGyro() {
     if (FieldConstants.isRedAlliance()){
       pigeon.setYaw(180);
+      loopPigeonYawDegrees = 180;
     }
     else {
       pigeon.setYaw(0);
+      loopPigeonYawDegrees = 0;
     }
   }
 
+  /**
+   * Refreshes the gyro signals in one call, then extrapolates yaw by the yaw rate
+   * from when the Pigeon measured it to now. Everything that reads yaw until the next refresh
+   * gets this one heading.
+   */
+  private void refreshLoopSignals() {
+    BaseStatusSignal.refreshAll(loopPhoenixSignals);
+    loopPigeonYawRateDegreesPerSecond = loopYawRateSignal.getValueAsDouble();
+    loopPigeonYawDegrees = loopYawSignal.getValueAsDouble();
+    double ageSeconds = loopYawSignal.getTimestamp().getLatency();
+    if (loopYawSignal.getStatus().isOK() && ageSeconds < SwerveConstants.maxYawExtrapolationSeconds) {
+      loopPigeonYawDegrees += loopPigeonYawRateDegreesPerSecond * ageSeconds;
+    }
+  }
+
+  /** @return This loop's latency-compensated heading */
   public Rotation2d getYaw() {
+    return yawFromDegrees(loopPigeonYawDegrees);
+  }
+
+  private double getYawDegrees() {
+    return (Constants.SwerveConstants.invertPigeon) ? 360 - loopPigeonYawDegrees : loopPigeonYawDegrees;
+  }
+
+  private Rotation2d yawFromDegrees(double pigeonDegrees) {
     //fancy if else loop again
     return (Constants.SwerveConstants.invertPigeon)
-        ? Rotation2d.fromDegrees(360 - pigeon.getYaw().getValueAsDouble())
-        : Rotation2d.fromDegrees(pigeon.getYaw().getValueAsDouble());
+        ? Rotation2d.fromDegrees(360 - pigeonDegrees)
+        : Rotation2d.fromDegrees(pigeonDegrees);
+  }
+
+  // Feeds one timestamped sample from the odometry thread into the pose estimator
+  private void applyOdometrySample(double timestampSeconds, double[] values) {
+    for (int i = 0; i < 4; i++) {
+      sampledPositions[i].distanceMeters = values[driveSampleIndex[i]];
+      double angleDegrees = values[angleSampleIndex[i]];
+      if (angleDegrees != sampledAngleDegrees[i]) {
+        sampledPositions[i].angle = Rotation2d.fromDegrees(angleDegrees);
+        sampledAngleDegrees[i] = angleDegrees;
+      }
+    }
+    sampledPigeonYawDegrees = values[yawSampleIndex];
+    hasOdometrySample = true;
+    Pose2d pose = odometry.updateWithTime(timestampSeconds, yawFromDegrees(sampledPigeonYawDegrees), sampledPositions);
+
+    // Rotate this loop's measured robot-relative velocity into the field frame
+    double heading = pose.getRotation().getRadians();
+    double cos = Math.cos(heading);
+    double sin = Math.sin(heading);
+    poseHistory.record(
+        timestampSeconds,
+        pose.getX(),
+        pose.getY(),
+        heading,
+        measuredChassisSpeeds[0] * cos - measuredChassisSpeeds[1] * sin,
+        measuredChassisSpeeds[0] * sin + measuredChassisSpeeds[1] * cos,
+        measuredChassisSpeeds[2]);
+  }
+
+  /**
+   * Where the robot was at a past time, interpolated from the odometry samples.
+   * @param timestampSeconds FPGA time, e.g. a vision frame's capture time
+   * @return The pose, or empty if the time is older than the history reaches
+   */
+  public Optional<Pose2d> getPoseAt(double timestampSeconds) {
+    return poseHistory.getPoseAt(timestampSeconds);
+  }
+
+  /** Recorded poses and field-relative velocities; query with {@link PoseHistory#sampleAt}. */
+  public PoseHistory getPoseHistory() {
+    return poseHistory;
   }
 
   public void resyncModuleEncoders(){
@@ -213,29 +572,57 @@ public class SwerveSubsystem extends SubsystemBase {
 
 
   @Override
-  public void periodic() {
-        odometry.update(getYaw(), getPositions());
-        updateOdometryWithVision("limelight-a");
-        updateOdometryWithVision("limelight-b");
-    field.setRobotPose(getPose());
-
-    SmartDashboard.putNumber("Pigeon Yaw",  pigeon.getYaw().getValueAsDouble());
+  public void simulationPeriodic() {
+    // No physical gyro in simulation; turn the simulated Pigeon by the rate the modules measured
+    double omegaDegreesPerSecond = Math.toDegrees(measuredChassisSpeeds[2]);
+    pigeon.getSimState().addYaw(
+        (SwerveConstants.invertPigeon ? -1 : 1) * omegaDegreesPerSecond * TimedRobot.kDefaultPeriod);
+    pigeon.getSimState().setAngularVelocityZ(omegaDegreesPerSecond);
+  }
 
+  @Override
+  public void readInputs() {
+    refreshLoopSignals();
+    // Read every module's sensors once; periodic() and the drive commands use this snapshot
     for (SwerveModule mod : mSwerveMods) {
+      mod.updateInputs();
+      measuredModuleSpeeds[mod.moduleNumber] = mod.getInputs().driveVelocityMetersPerSecond;
+      measuredModuleAngles[mod.moduleNumber] = mod.getInputs().angleDegrees;
+    }
+    driveKinematics.toChassisSpeeds(measuredModuleSpeeds, measuredModuleAngles, measuredChassisSpeeds);
+  }
 
-      double canCoderDegrees = mod.getCanCoder().getDegrees();
+  @Override
+  public void writeOutputs() {
+    for (SwerveModule mod : mSwerveMods) {
+      mod.writeOutputs();
+    }
+  }
 
-      SmartDashboard.putNumber(
-          "Mod " + mod.moduleNumber + " Cancoder", mod.getCanCoder().getDegrees());
-      SmartDashboard.putNumber(
-          "Mod " + mod.moduleNumber + " Integrated", mod.getState().angle.getDegrees());
-      SmartDashboard.putNumber(
-          "Mod " + mod.moduleNumber + " Velocity", mod.getState().speedMetersPerSecond);
-      SmartDashboard.putNumber(
-          "Mod " + mod.moduleNumber + " New Cancoder Offset", 
-        canCoderDegrees < 0 ? 360 + canCoderDegrees : canCoderDegrees);
+  @Override
+  public void periodic() {
+        periodicSection.begin();
+        odometryThread.drain(odometrySampleConsumer);
+        visionSection.begin();
+        updateOdometryWithVision();
+        visionSection.end();
+    Pose2d pose = getPose();
+    field.setRobotPose(pose);
+
+  for (SwerveModule mod : mSwerveMods) {
+    SwerveModuleState state = mod.getState();
+    measuredStates[mod.moduleNumber].speedMetersPerSecond = state.speedMetersPerSecond;
+    measuredStates[mod.moduleNumber].angle = state.angle;
   }
-  swerveDataPublisher.set(getStates());
+  swerveDataPublisher.set(measuredStates);
+  driveKinematics.copyInto(desiredStates);
+  desiredSwerveDataPublisher.set(desiredStates);
+
+  moduleInputsLog.log(moduleInputs);
+  measuredStatesLog.log(measuredStates);
+  desiredStatesLog.log(desiredStates);
+  poseLog.log(pose);
+  periodicSection.end();
 }
 
 }
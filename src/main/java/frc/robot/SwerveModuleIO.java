@@ -0,0 +1,70 @@
+package frc.robot;
+
+/**
+ * The hardware behind one swerve module: a drive motor, an angle motor with an integrated
+ * encoder, and an absolute angle encoder.
+ * <p>
+ * {@link SwerveModule} holds all of the module's control logic (optimization, holding the angle
+ * at low speed, calibrating to the absolute encoder) and talks to the hardware only through this
+ * interface. {@link SwerveModuleIOSpark} drives the real SparkFlex/SparkMax/CANcoder, and
+ * {@link SwerveModuleIOSim} runs the same logic against a physics model on a desktop.
+ * <p>
+ * Units match {@link SwerveModuleInputs}: meters, meters per second and degrees.
+ */
+public interface SwerveModuleIO {
+    /**
+     * Reads every sensor once into the snapshot. Leaves {@code timestampSeconds} to the caller.
+     * @param inputs The module's reused inputs object
+     */
+    void updateInputs(SwerveModuleInputs inputs);
+
+    /**
+     * Reads the drive position straight from the sensor. Called from the odometry thread,
+     * so implementations must be safe to call off the main thread.
+     * @return Drive wheel distance traveled in meters
+     */
+    double getDrivePositionMeters();
+
+    /**
+     * Reads the integrated angle straight from the sensor. Called from the odometry thread,
+     * so implementations must be safe to call off the main thread.
+     * @return Wheel angle in degrees (not wrapped)
+     */
+    double getAngleDegrees();
+
+    /**
+     * Reads a fresh absolute angle, for calibrating the integrated encoder.
+     * @return Absolute wheel angle in degrees, before the module offset is applied
+     */
+    double getAbsoluteAngleDegrees();
+
+    /**
+     * Drives without feedback.
+     * @param percentOutput Fraction of bus voltage (-1 to 1)
+     */
+    void setDriveOpenLoop(double percentOutput);
+
+    /**
+     * Runs the drive motor's velocity loop.
+     * @param velocityMetersPerSecond Target wheel speed
+     * @param feedforwardVolts Voltage added to the PID output
+     */
+    void setDriveVelocity(double velocityMetersPerSecond, double feedforwardVolts);
+
+    /**
+     * Runs the angle motor's position loop.
+     * @param angleDegrees Target wheel angle in degrees (not wrapped)
+     */
+    void setAnglePosition(double angleDegrees);
+
+    /**
+     * Overwrites the integrated angle encoder's position, e.g. with the absolute angle.
+     * @param angleDegrees The wheel's actual angle in degrees
+     */
+    void setIntegratedAngle(double angleDegrees);
+
+    /**
+     * @return false if the motor controllers reported an error on their last call
+     */
+    boolean isHealthy();
+}
@@ -0,0 +1,147 @@
+package frc.robot;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.math.system.plant.LinearSystemId;
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.DCMotorSim;
+import frc.robot.Constants.SwerveConstants;
+import frc.robot.Constants.SwerveConstants.ModuleData;
+
+/**
+ * Simulated swerve module for running the drive code on a desktop.
+ * <p>
+ * The drive (NEO Vortex) and angle (NEO) motors are {@link DCMotorSim}s using the gear ratios in
+ * {@link SwerveConstants}. The Spark closed loops are imitated with the same gains: the PID
+ * output is a duty cycle, scaled by the voltage compensation setting to get volts. The model
+ * steps forward each time {@link #updateInputs} is called, using the time since the last call.
+ */
+public class SwerveModuleIOSim implements SwerveModuleIO {
+    // Rotating inertia at the output, guessed from wheel and gearbox mass
+    private static final double DRIVE_MOI_KG_M2 = 0.025;
+    private static final double ANGLE_MOI_KG_M2 = 0.004;
+
+    private static final DCMotor driveGearbox = DCMotor.getNeoVortex(1);
+    private static final DCMotor angleGearbox = DCMotor.getNEO(1);
+
+    private final DCMotorSim driveSim = new DCMotorSim(
+        LinearSystemId.createDCMotorSystem(driveGearbox, DRIVE_MOI_KG_M2, SwerveConstants.driveGearRatio),
+        driveGearbox);
+    private final DCMotorSim angleSim = new DCMotorSim(
+        LinearSystemId.createDCMotorSystem(angleGearbox, ANGLE_MOI_KG_M2, SwerveConstants.angleGearRatio),
+        angleGearbox);
+
+    // Where the simulated absolute encoder reads zero, so calibration behaves like the real module
+    private final double absoluteOffsetDegrees;
+    // Difference between the integrated angle encoder and the mechanism angle
+    private double integratedAngleOffsetDegrees = 0.0;
+
+    private enum DriveMode { OPEN_LOOP, VELOCITY }
+    private DriveMode driveMode = DriveMode.OPEN_LOOP;
+    private double driveSetpoint = 0.0;
+    private double driveFeedforwardVolts = 0.0;
+    private double angleSetpointDegrees = 0.0;
+    private boolean angleClosedLoop = false;
+
+    private double lastUpdateSeconds = Double.NaN;
+
+    // Read by the odometry thread
+    private volatile double drivePositionMeters = 0.0;
+    private volatile double angleDegrees = 0.0;
+
+    /** @param moduleConstants Used for the absolute encoder offset, so wheels start straight */
+    public SwerveModuleIOSim(ModuleData moduleConstants){
+        absoluteOffsetDegrees = moduleConstants.angleOffset();
+    }
+
+    @Override
+    public void updateInputs(SwerveModuleInputs inputs){
+        double now = Timer.getFPGATimestamp();
+        double dt = Double.isNaN(lastUpdateSeconds) ? 0.02 : now - lastUpdateSeconds;
+        lastUpdateSeconds = now;
+
+        double driveVelocity = getDriveVelocityMetersPerSecond();
+        double driveVolts = driveMode == DriveMode.OPEN_LOOP
+            ? driveSetpoint * SwerveConstants.voltageComp
+            : driveFeedforwardVolts
+                + SwerveConstants.driveKP * SwerveConstants.voltageComp * (driveSetpoint - driveVelocity);
+        double angleVolts = angleClosedLoop
+            ? SwerveConstants.angleKP * SwerveConstants.voltageComp * (angleSetpointDegrees - angleDegrees)
+            : 0.0;
+        driveVolts = MathUtil.clamp(driveVolts, -SwerveConstants.voltageComp, SwerveConstants.voltageComp);
+        angleVolts = MathUtil.clamp(angleVolts, -SwerveConstants.voltageComp, SwerveConstants.voltageComp);
+
+        driveSim.setInputVoltage(driveVolts);
+        angleSim.setInputVoltage(angleVolts);
+        if (dt > 0) {
+            driveSim.update(dt);
+            angleSim.update(dt);
+        }
+
+        drivePositionMeters = driveSim.getAngularPositionRad() * SwerveConstants.wheelDiameter / 2;
+        angleDegrees = getMechanismAngleDegrees() + integratedAngleOffsetDegrees;
+
+        inputs.drivePositionMeters = drivePositionMeters;
+        inputs.driveVelocityMetersPerSecond = getDriveVelocityMetersPerSecond();
+        inputs.driveAppliedOutput = driveVolts / SwerveConstants.voltageComp;
+        inputs.driveCurrentAmps = Math.abs(driveSim.getCurrentDrawAmps());
+        inputs.angleDegrees = angleDegrees;
+        inputs.absoluteAngleDegrees = getAbsoluteAngleDegrees();
+        inputs.angleAppliedOutput = angleVolts / SwerveConstants.voltageComp;
+        inputs.angleCurrentAmps = Math.abs(angleSim.getCurrentDrawAmps());
+    }
+
+    private double getDriveVelocityMetersPerSecond(){
+        return driveSim.getAngularVelocityRadPerSec() * SwerveConstants.wheelDiameter / 2;
+    }
+
+    private double getMechanismAngleDegrees(){
+        return Units.radiansToDegrees(angleSim.getAngularPositionRad());
+    }
+
+    @Override
+    public double getDrivePositionMeters(){
+        return drivePositionMeters;
+    }
+
+    @Override
+    public double getAngleDegrees(){
+        return angleDegrees;
+    }
+
+    @Override
+    public double getAbsoluteAngleDegrees(){
+        return MathUtil.inputModulus(getMechanismAngleDegrees() + absoluteOffsetDegrees, 0, 360);
+    }
+
+    @Override
+    public void setDriveOpenLoop(double percentOutput){
+        driveMode = DriveMode.OPEN_LOOP;
+        driveSetpoint = percentOutput;
+    }
+
+    @Override
+    public void setDriveVelocity(double velocityMetersPerSecond, double feedforwardVolts){
+        driveMode = DriveMode.VELOCITY;
+        driveSetpoint = velocityMetersPerSecond;
+        driveFeedforwardVolts = feedforwardVolts;
+    }
+
+    @Override
+    public void setAnglePosition(double angleDegrees){
+        angleSetpointDegrees = angleDegrees;
+        angleClosedLoop = true;
+    }
+
+    @Override
+    public void setIntegratedAngle(double angleDegrees){
+        integratedAngleOffsetDegrees = angleDegrees - getMechanismAngleDegrees();
+        this.angleDegrees = angleDegrees;
+    }
+
+    @Override
+    public boolean isHealthy(){
+        return true;
+    }
+}
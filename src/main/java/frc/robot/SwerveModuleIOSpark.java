@@ -0,0 +1,294 @@
+package frc.robot;
+
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.StatusSignal;
+import com.ctre.phoenix6.configs.CANcoderConfiguration;
+import com.ctre.phoenix6.hardware.CANcoder;
+import com.revrobotics.REVLibError;
+import com.revrobotics.RelativeEncoder;
+import com.revrobotics.spark.ClosedLoopSlot;
+import com.revrobotics.spark.SparkBase.ControlType;
+import com.revrobotics.spark.SparkFlex;
+import com.revrobotics.spark.SparkLowLevel.MotorType;
+import com.revrobotics.spark.SparkMax;
+import com.revrobotics.spark.config.SparkFlexConfig;
+import com.revrobotics.spark.config.SparkMaxConfig;
+
+import edu.wpi.first.units.Units;
+import edu.wpi.first.units.measure.Angle;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Timer;
+import frc.lib.CANBusLoad;
+import frc.lib.CANSparkUtil;
+import frc.lib.CANSparkUtil.Usage;
+import frc.lib.SparkConfigurator;
+import frc.lib.SparkSetpointCache;
+import frc.robot.Constants.SwerveConstants;
+import frc.robot.Constants.SwerveConstants.ModuleData;
+
+/**
+ * Real swerve module hardware: a SparkFlex drive motor, a SparkMax angle motor and a CANcoder
+ * absolute encoder.
+ */
+public class SwerveModuleIOSpark implements SwerveModuleIO {
+    private final SparkMax angleMotor;
+    private final SparkFlex driveMotor;
+
+    private final RelativeEncoder driveEncoder;
+    private final RelativeEncoder integratedAngleEncoder;
+
+    private final CANcoder angleEncoder;
+    private final StatusSignal<Angle> absolutePosition;
+
+    // Absolute position rate while booting, and how long to wait for the first fresh reading
+    private static final double BOOT_ABSOLUTE_FREQUENCY_HZ = 100;
+    private static final double ABSOLUTE_TIMEOUT_SECONDS = 0.5;
+    // Absolute position rate after boot. It's low-rate telemetry, so updateInputs() only reads it
+    // this often instead of refreshing it with the loop's signals
+    private static final double ABSOLUTE_FREQUENCY_HZ = 1;
+    private double lastAbsoluteRefreshSeconds = Double.NEGATIVE_INFINITY;
+
+    // Setpoints are only sent when they change (or to keep them alive), see SparkSetpointCache
+    private final SparkSetpointCache driveSetpoints;
+    private final SparkSetpointCache angleSetpoints;
+    private static final double DRIVE_EPSILON = 1e-3; // duty cycle, or meters per second
+    private static final double ANGLE_EPSILON_DEGREES = 0.01;
+
+    /**
+     * Creates and configures the module's motor controllers and absolute encoder.
+     *
+     * @param moduleConstants ModuleData record containing:
+     *                        - driveMotorID: CAN ID of the drive motor (SparkFlex)
+     *                        - angleMotorID: CAN ID of the angle motor (SparkMax)
+     *                        - encoderID: CAN ID of the absolute angle encoder (CANcoder)
+     */
+    public SwerveModuleIOSpark(ModuleData moduleConstants){
+        /* Angle Encoder Configuration
+         * The CANcoder is an absolute encoder that provides the module's angle even after power loss.
+         * It's used to calibrate the integrated encoder on startup.
+         */
+        // Create CANcoder instance with the encoder CAN ID from module constants
+        angleEncoder = new CANcoder(moduleConstants.encoderID());
+        // Apply default configuration to the CANcoder (factory reset to known state)
+        angleEncoder.getConfigurator().apply(new CANcoderConfiguration());
+        // Send the absolute position fast while booting so a fresh reading arrives quickly;
+        // it drops to 1 Hz once the motors are configured (see waitForAbsolutePosition()).
+        absolutePosition = angleEncoder.getAbsolutePosition();
+        absolutePosition.setUpdateFrequency(BOOT_ABSOLUTE_FREQUENCY_HZ);
+
+        /* Angle Motor Configuration
+         * The angle motor rotates the swerve module to the desired orientation.
+         * It uses a SparkMax with integrated encoder for position control.
+         */
+        // Create SparkMax motor controller for angle rotation (brushless motor)
+        angleMotor = new SparkMax(moduleConstants.angleMotorID(), MotorType.kBrushless);
+        // Get the integrated encoder (relative encoder) from the motor controller
+        integratedAngleEncoder = angleMotor.getEncoder();
+        // Send position setpoints through the closed-loop controller (PID controller) only when they change
+        angleSetpoints = new SparkSetpointCache(angleMotor, ANGLE_EPSILON_DEGREES);
+        // Configure motor settings (current limits, PID, encoder conversion, etc.)
+        configAngleMotor();
+
+        /* Drive Motor Configuration
+         * The drive motor provides forward/backward motion for the swerve module.
+         * It uses a SparkFlex with integrated encoder for velocity control.
+         */
+        // Create SparkFlex motor controller for drive motion (brushless motor)
+        driveMotor = new SparkFlex(moduleConstants.driveMotorID(), MotorType.kBrushless);
+        // Get the integrated encoder (relative encoder) from the motor controller
+        driveEncoder = driveMotor.getEncoder();
+        // Send velocity setpoints through the closed-loop controller (PID controller) only when they change
+        driveSetpoints = new SparkSetpointCache(driveMotor, DRIVE_EPSILON);
+        // Configure motor settings (current limits, PID, encoder conversion, etc.)
+        configDriveMotor();
+
+        // Calibration needs a real absolute reading, so wait for one instead of sleeping
+        waitForAbsolutePosition();
+    }
+
+    /**
+     * Declares the frames this module's three devices send, as configured above, for the CAN
+     * bus budget (see CANBusLoad). Both Sparks send their encoder at the odometry rate. The
+     * CANcoder's other signals stay at their Phoenix 6 default rates. Static because
+     * SwerveSubsystem declares it for every module whether or not the hardware is built, so a
+     * simulated robot declares the same load as the real one.
+     */
+    public static void declareBusLoad(ModuleData moduleConstants){
+        CANSparkUtil.declareSparkBusUsage(
+            CANBusLoad.register("Angle Spark (" + moduleConstants.angleMotorID() + ")"),
+            SwerveConstants.odometryStatusPeriodMs);
+        CANSparkUtil.declareSparkBusUsage(
+            CANBusLoad.register("Drive Spark (" + moduleConstants.driveMotorID() + ")"),
+            SwerveConstants.odometryStatusPeriodMs);
+        CANBusLoad.register("CANcoder (" + moduleConstants.encoderID() + ")")
+            .frame("Absolute Position", 1000.0 / ABSOLUTE_FREQUENCY_HZ)
+            .frame("Position and Velocity", 10)
+            .frame("Supply Voltage and Magnet Health", 250);
+    }
+
+    /**
+     * Waits until the CANcoder has sent an absolute position after being configured, then slows
+     * it to {@link #ABSOLUTE_FREQUENCY_HZ}.
+     * <p>
+     * The CANcoder (absolute encoder) is only used once during robot startup to calibrate
+     * the integrated encoder (see SwerveModule.resetToAbsolute()). During normal
+     * operation, getAngle() reads from the integrated encoder every 20ms loop cycle, not
+     * the CANcoder. A low CANcoder update frequency reduces CAN bus traffic since we only
+     * need the absolute position once at startup, not continuously.
+     */
+    private void waitForAbsolutePosition(){
+        StatusCode status = absolutePosition.waitForUpdate(ABSOLUTE_TIMEOUT_SECONDS).getStatus();
+        if (!status.isOK()){
+            DriverStation.reportWarning(
+                "CANcoder " + angleEncoder.getDeviceID() + " gave no absolute position at boot: " + status, false);
+        }
+        absolutePosition.setUpdateFrequency(ABSOLUTE_FREQUENCY_HZ);
+    }
+
+    @Override
+    public void updateInputs(SwerveModuleInputs inputs){
+        inputs.drivePositionMeters = driveEncoder.getPosition();
+        inputs.driveVelocityMetersPerSecond = driveEncoder.getVelocity();
+        inputs.driveAppliedOutput = driveMotor.getAppliedOutput();
+        inputs.driveCurrentAmps = driveMotor.getOutputCurrent();
+        inputs.angleDegrees = integratedAngleEncoder.getPosition();
+        // A new absolute position only arrives once per period, so only look for it that often
+        double now = Timer.getFPGATimestamp();
+        if (now - lastAbsoluteRefreshSeconds >= 1.0 / ABSOLUTE_FREQUENCY_HZ) {
+            absolutePosition.refresh();
+            lastAbsoluteRefreshSeconds = now;
+        }
+        inputs.absoluteAngleDegrees = absolutePosition.getValueAsDouble() * 360.0;
+        inputs.angleAppliedOutput = angleMotor.getAppliedOutput();
+        inputs.angleCurrentAmps = angleMotor.getOutputCurrent();
+    }
+
+    @Override
+    public double getDrivePositionMeters(){
+        return driveEncoder.getPosition();
+    }
+
+    @Override
+    public double getAngleDegrees(){
+        return integratedAngleEncoder.getPosition();
+    }
+
+    @Override
+    public double getAbsoluteAngleDegrees(){
+        return absolutePosition.refresh().getValue().in(Units.Degrees);
+    }
+
+    @Override
+    public void setDriveOpenLoop(double percentOutput){
+        driveSetpoints.set(percentOutput);
+    }
+
+    @Override
+    public void setDriveVelocity(double velocityMetersPerSecond, double feedforwardVolts){
+        driveSetpoints.setReference(
+            velocityMetersPerSecond,
+            ControlType.kVelocity,
+            ClosedLoopSlot.kSlot0,
+            feedforwardVolts);
+    }
+
+    @Override
+    public void setAnglePosition(double angleDegrees){
+        angleSetpoints.setReference(angleDegrees, ControlType.kPosition);
+    }
+
+    @Override
+    public void setIntegratedAngle(double angleDegrees){
+        integratedAngleEncoder.setPosition(angleDegrees);
+    }
+
+    /**
+     * Checks if encoder data from both motors is valid (no errors).
+     * <p>
+     * Encoder errors can occur when:
+     * <ul>
+     *   <li>CAN bus communication fails (disconnected cable, CAN bus overload, electrical interference)</li>
+     *   <li>Motor controller configuration errors (invalid parameters, failed configuration write)</li>
+     *   <li>Encoder hardware failure (damaged encoder, loose connections, sensor malfunction)</li>
+     *   <li>Motor controller fault conditions (overcurrent, overvoltage, thermal shutdown)</li>
+     * </ul>
+     */
+    @Override
+    public boolean isHealthy(){
+        return driveMotor.getLastError() == REVLibError.kOk && angleMotor.getLastError() == REVLibError.kOk;
+    }
+
+    /**
+     * Configures the angle motor (SparkMax) with all necessary settings for position control.
+     * Called once during construction. Configures current limits, motor inversion, brake mode,
+     * encoder conversion factors, PID values, and voltage compensation.
+     */
+    private void configAngleMotor(){
+        SparkMaxConfig sparkMaxConfig = new SparkMaxConfig();
+        // Factory reset is commented out - only needed if motor needs to be reset to defaults
+        //angleMotor.restoreFactoryDefaults();
+
+        // Limit CAN bus usage to position data only (reduces CAN bus traffic)
+        CANSparkUtil.setSparkBusUsage(sparkMaxConfig, Usage.kPositionOnly);
+        // Send the encoder position as often as the odometry thread samples it, and the status
+        // and faults frames at the periods declareBusLoad() declares
+        CANSparkUtil.setSparkBusPeriods(sparkMaxConfig, SwerveConstants.odometryStatusPeriodMs);
+        // Set maximum current draw to protect motor and wiring
+        sparkMaxConfig.smartCurrentLimit(SwerveConstants.angleContinuousCurrentLimit);
+        // Set motor direction (may need to be inverted based on physical mounting)
+        sparkMaxConfig.inverted(SwerveConstants.angleInvert);
+        // Set idle mode: brake (holds position) or coast (free rotation)
+        sparkMaxConfig.idleMode(SwerveConstants.angleNeutralMode);
+        // Convert encoder counts to degrees so encoder position matches module rotation angle
+        sparkMaxConfig.encoder.positionConversionFactor(SwerveConstants.angleConversionFactor);
+        // Configure PID controller for position control (no feedforward used)
+        sparkMaxConfig.closedLoop.p(SwerveConstants.angleKP).i(SwerveConstants.angleKI).d(SwerveConstants.angleKD);
+       // angleController.setFF(m_angleKFF);
+        // Compensate for battery voltage variations to maintain consistent motor performance
+        sparkMaxConfig.voltageCompensation(SwerveConstants.voltageComp);
+        // Apply configuration to motor controller, only resetting and saving to flash when the
+        // settings changed since they were last saved (see SparkConfigurator).
+        // configure() waits for the SparkMax to acknowledge the settings, so no extra delay is needed
+        SparkConfigurator.configure(angleMotor, sparkMaxConfig);
+    }
+
+    /**
+     * Configures the drive motor (SparkFlex) with all necessary settings for velocity control.
+     * Called once during construction. Configures current limits, motor inversion, brake mode,
+     * encoder conversion factors, PID values, and voltage compensation. After configuration,
+     * resets the drive encoder position to zero.
+     */
+    private void configDriveMotor(){
+        SparkFlexConfig sparkFlexConfig = new SparkFlexConfig();
+        // Factory reset is commented out - only needed if motor needs to be reset to defaults
+        //driveMotor.restoreFactoryDefaults();
+
+        // Use full CAN bus bandwidth for drive motor (needs velocity and position data frequently)
+        CANSparkUtil.setSparkBusUsage(sparkFlexConfig, Usage.kAll);
+        // Send the encoder position as often as the odometry thread samples it, and the status
+        // and faults frames at the periods declareBusLoad() declares
+        CANSparkUtil.setSparkBusPeriods(sparkFlexConfig, SwerveConstants.odometryStatusPeriodMs);
+        // Set maximum current draw to protect motor and wiring
+        sparkFlexConfig.smartCurrentLimit(SwerveConstants.driveContinuousCurrentLimit);
+        // Set motor direction (may need to be inverted based on physical mounting)
+        sparkFlexConfig.inverted(SwerveConstants.driveInvert);
+        // Set idle mode: brake (holds position) or coast (free rotation)
+        sparkFlexConfig.idleMode(SwerveConstants.driveNeutralMode);
+        // Convert encoder counts to meters per second for velocity readings
+        sparkFlexConfig.encoder.velocityConversionFactor(SwerveConstants.driveConversionVelocityFactor);
+        // Convert encoder counts to meters traveled for position readings
+        sparkFlexConfig.encoder.positionConversionFactor(SwerveConstants.driveConversionPositionFactor);
+        // Configure PID controller for velocity control (no feedforward used)
+        sparkFlexConfig.closedLoop
+            .p(SwerveConstants.driveKP)
+            .i(SwerveConstants.driveKI)
+            .d(SwerveConstants.driveKD);
+        // Compensate for battery voltage variations to maintain consistent motor performance
+        sparkFlexConfig.voltageCompensation(SwerveConstants.voltageComp);
+        // Apply configuration to motor controller, only resetting and saving to flash when the
+        // settings changed since they were last saved (see SparkConfigurator)
+        SparkConfigurator.configure(driveMotor, sparkFlexConfig);
+        // Reset encoder position to zero (sets starting position for odometry)
+        driveEncoder.setPosition(0.0);
+    }
+}
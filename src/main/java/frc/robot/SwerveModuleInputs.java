@@ -0,0 +1,100 @@
+package frc.robot;
+
+import java.nio.ByteBuffer;
+
+import edu.wpi.first.util.struct.Struct;
+import edu.wpi.first.util.struct.StructSerializable;
+
+/**
+ * One loop's worth of sensor readings for a single swerve module.
+ * <p>
+ * {@link SwerveModule#updateInputs()} fills this once per loop, and odometry, telemetry and
+ * control all read from it afterwards. That way each sensor crosses the REV/CTRE JNI layer only
+ * once per cycle and every consumer sees the same values. Fields are primitives and the object
+ * is reused, so taking a snapshot allocates nothing.
+ * <p>
+ * The snapshot is also published as a packed struct array (one element per module), which
+ * replaces a separate NetworkTables topic per module per value and still decodes in
+ * AdvantageScope.
+ */
+public class SwerveModuleInputs implements StructSerializable {
+    /** Drive wheel distance traveled in meters */
+    public double drivePositionMeters = 0.0;
+    /** Drive wheel speed in meters per second */
+    public double driveVelocityMetersPerSecond = 0.0;
+    /** Drive motor output as a fraction of bus voltage (-1 to 1) */
+    public double driveAppliedOutput = 0.0;
+    /** Drive motor stator current in amps */
+    public double driveCurrentAmps = 0.0;
+
+    /** Wheel angle from the integrated angle motor encoder, in degrees (not wrapped) */
+    public double angleDegrees = 0.0;
+    /** Wheel angle from the CANcoder, in degrees, before the module offset is applied */
+    public double absoluteAngleDegrees = 0.0;
+    /** Angle motor output as a fraction of bus voltage (-1 to 1) */
+    public double angleAppliedOutput = 0.0;
+    /** Angle motor stator current in amps */
+    public double angleCurrentAmps = 0.0;
+
+    /** FPGA time in seconds when this snapshot was taken */
+    public double timestampSeconds = 0.0;
+
+    public static final Struct<SwerveModuleInputs> struct = new SwerveModuleInputsStruct();
+
+    private static final class SwerveModuleInputsStruct implements Struct<SwerveModuleInputs> {
+        @Override
+        public Class<SwerveModuleInputs> getTypeClass() {
+            return SwerveModuleInputs.class;
+        }
+
+        @Override
+        public String getTypeName() {
+            return "SwerveModuleInputs";
+        }
+
+        @Override
+        public int getSize() {
+            return kSizeDouble * 9;
+        }
+
+        @Override
+        public String getSchema() {
+            return "double drivePositionMeters;double driveVelocityMetersPerSecond;double driveAppliedOutput;"
+                + "double driveCurrentAmps;double angleDegrees;double absoluteAngleDegrees;"
+                + "double angleAppliedOutput;double angleCurrentAmps;double timestampSeconds";
+        }
+
+        @Override
+        public SwerveModuleInputs unpack(ByteBuffer bb) {
+            SwerveModuleInputs inputs = new SwerveModuleInputs();
+            unpackInto(inputs, bb);
+            return inputs;
+        }
+
+        @Override
+        public void unpackInto(SwerveModuleInputs out, ByteBuffer bb) {
+            out.drivePositionMeters = bb.getDouble();
+            out.driveVelocityMetersPerSecond = bb.getDouble();
+            out.driveAppliedOutput = bb.getDouble();
+            out.driveCurrentAmps = bb.getDouble();
+            out.angleDegrees = bb.getDouble();
+            out.absoluteAngleDegrees = bb.getDouble();
+            out.angleAppliedOutput = bb.getDouble();
+            out.angleCurrentAmps = bb.getDouble();
+            out.timestampSeconds = bb.getDouble();
+        }
+
+        @Override
+        public void pack(ByteBuffer bb, SwerveModuleInputs value) {
+            bb.putDouble(value.drivePositionMeters);
+            bb.putDouble(value.driveVelocityMetersPerSecond);
+            bb.putDouble(value.driveAppliedOutput);
+            bb.putDouble(value.driveCurrentAmps);
+            bb.putDouble(value.angleDegrees);
+            bb.putDouble(value.absoluteAngleDegrees);
+            bb.putDouble(value.angleAppliedOutput);
+            bb.putDouble(value.angleCurrentAmps);
+            bb.putDouble(value.timestampSeconds);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package frc.lib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.Constants.CANConstants;
+import frc.robot.SimRobot;
+
+/**
+ * Builds the robot in simulation, which declares every CAN device the same way the real robot
+ * does, and fails when their frames don't fit {@link CANConstants#BUS_LOAD_BUDGET_PERCENT}.
+ */
+class CANBusLoadTest {
+  @Test
+  void sumsDeclaredFrames() {
+    double robotFramesPerSecond = CANBusLoad.getFramesPerSecond();
+    CANBusLoad.Device device =
+        CANBusLoad.register("Test Device").frame("Fast", 10).frame("Slow", 1000).frame("Off", 0);
+    try {
+      assertEquals(101.0, CANBusLoad.getFramesPerSecond() - robotFramesPerSecond, 1e-9);
+      assertEquals(101.0 * CANBusLoad.BITS_PER_FRAME / CANBusLoad.BUS_BITS_PER_SECOND * 100.0,
+          CANBusLoad.getUtilizationPercent(101.0), 1e-9);
+    } finally {
+      CANBusLoad.unregister(device);
+    }
+  }
+
+  @Test
+  void robotFitsBudget() {
+    // Swerve declares its module hardware even with simulated modules; shooter and intake Sparks
+    // declare through CANBandwidthManager
+    SimRobot.get();
+
+    double utilization = CANBusLoad.getUtilizationPercent();
+    assertTrue(utilization <= CANConstants.BUS_LOAD_BUDGET_PERCENT,
+        () -> String.format("Declared CAN load %.1f%% (%.0f frames/s) is over the %.1f%% budget",
+            utilization, CANBusLoad.getFramesPerSecond(), CANConstants.BUS_LOAD_BUDGET_PERCENT));
+  }
+}
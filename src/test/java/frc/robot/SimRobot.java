@@ -0,0 +1,68 @@
+package frc.robot;
+
+import java.util.function.BooleanSupplier;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.lib.RobotLoop;
+
+/**
+ * The robot, built once on the simulated HAL and shared by every test in the JVM. CAN device
+ * declarations, telemetry keys and the command scheduler are static, so building the robot again
+ * would declare every device twice and open every Spark's CAN ID twice.
+ *
+ * <p>{@link #step()} runs the same phases as {@code Robot.robotPeriodic()}, so tests exercise
+ * subsystems through their inputs, periodic(), simulationPeriodic() and outputs in loop order.
+ */
+public final class SimRobot {
+  private static RobotContainer container;
+
+  private SimRobot() {}
+
+  /** @return The robot's container, built the first time this is called. */
+  public static synchronized RobotContainer get() {
+    if (container == null) {
+      if (!HAL.initialize(500, 0)) {
+        throw new IllegalStateException("Couldn't initialize the simulated HAL");
+      }
+      // Time only moves when a test steps it
+      SimHooks.pauseTiming();
+      container = new RobotContainer();
+    }
+    return container;
+  }
+
+  /** Enables the simulated driver station, as if in teleop. */
+  public static void enable() {
+    DriverStationSim.setEnabled(true);
+    DriverStationSim.notifyNewData();
+  }
+
+  /** Runs one robot loop: read inputs, run the scheduler, write outputs, then advance time. */
+  public static void step() {
+    RobotLoop.readInputs();
+    CommandScheduler.getInstance().run();
+    RobotLoop.writeOutputs();
+    SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+  }
+
+  /**
+   * Runs loops until the condition holds, checking it after each loop.
+   *
+   * @param condition What to wait for.
+   * @param limitSeconds Simulated time to give up after.
+   * @return Whether the condition held within the limit.
+   */
+  public static boolean stepUntil(BooleanSupplier condition, double limitSeconds) {
+    for (double seconds = 0; seconds < limitSeconds; seconds += TimedRobot.kDefaultPeriod) {
+      step();
+      if (condition.getAsBoolean()) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,52 @@
+package frc.robot.Subsystems;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.trajectory.TrapezoidProfile;
+import frc.robot.Constants.IntakeConstants;
+import frc.robot.SimRobot;
+
+/** Deploys and stows the intake arm through the simulated robot's loop and checks the times it reports. */
+class IntakeSubsystemTest {
+  // The arm tracks its profile a few degrees behind, so give it a little time after the profile ends
+  private static final double SETTLE_MARGIN_SECONDS = 0.25;
+
+  private static IntakeSubsystem intake;
+
+  @BeforeAll
+  static void enableRobot() {
+    intake = SimRobot.get().getIntake();
+    SimRobot.enable();
+  }
+
+  @Test
+  void deploysAndStowsWithinProfileTime() {
+    TrapezoidProfile profile = new TrapezoidProfile(new TrapezoidProfile.Constraints(
+        IntakeConstants.INTAKE_ARM_MAX_VELOCITY, IntakeConstants.INTAKE_ARM_MAX_ACCELERATION));
+    profile.calculate(0,
+        new TrapezoidProfile.State(IntakeConstants.INTAKE_ARM_RAISED_POSITION, 0),
+        new TrapezoidProfile.State(IntakeConstants.INTAKE_ARM_LOWERED_POSITION, 0));
+    double limitSeconds = profile.totalTime() + SETTLE_MARGIN_SECONDS;
+
+    intake.lowerIntake();
+    assertFalse(intake.isArmAtGoal());
+    assertTrue(SimRobot.stepUntil(intake::isArmAtGoal, limitSeconds),
+        () -> String.format("Arm didn't deploy within %.2f s, at %.1f degrees", limitSeconds, intake.getArmPosition()));
+    assertEquals(IntakeConstants.INTAKE_ARM_LOWERED_POSITION, intake.getArmPosition(), IntakeConstants.INTAKE_ARM_TOLERANCE);
+    assertTrue(intake.getDeploySeconds() <= limitSeconds,
+        () -> String.format("Intake Arm Deploy Seconds %.3f is over %.2f s", intake.getDeploySeconds(), limitSeconds));
+
+    intake.raiseIntake();
+    assertFalse(intake.isArmAtGoal());
+    assertTrue(SimRobot.stepUntil(intake::isArmAtGoal, limitSeconds),
+        () -> String.format("Arm didn't stow within %.2f s, at %.1f degrees", limitSeconds, intake.getArmPosition()));
+    assertEquals(IntakeConstants.INTAKE_ARM_RAISED_POSITION, intake.getArmPosition(), IntakeConstants.INTAKE_ARM_TOLERANCE);
+    assertTrue(intake.getStowSeconds() <= limitSeconds,
+        () -> String.format("Intake Arm Stow Seconds %.3f is over %.2f s", intake.getStowSeconds(), limitSeconds));
+  }
+}
@@ -0,0 +1,52 @@
+package frc.robot.Subsystems;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.trajectory.TrapezoidProfile;
+import frc.robot.Constants.ShooterConstants;
+import frc.robot.SimRobot;
+
+/** Moves the hood through the simulated robot's loop and checks the settle time it reports. */
+class ShooterSubsystemTest {
+  // Time allowed past the MAXMotion profile for the hood to come within tolerance
+  private static final double SETTLE_MARGIN_SECONDS = 0.1;
+
+  private static ShooterSubsystem shooter;
+
+  @BeforeAll
+  static void enableRobot() {
+    shooter = SimRobot.get().getShooter();
+    SimRobot.enable();
+  }
+
+  @Test
+  void hoodSettlesWithinProfileTime() {
+    assertFalse(SimRobot.stepUntil(shooter::isHoodAtTarget, 0.1),
+        "Hood reported at target before it was given one");
+
+    // MAXMotion limits are in motor RPM; the hood moves in motor rotations
+    TrapezoidProfile profile = new TrapezoidProfile(new TrapezoidProfile.Constraints(
+        ShooterConstants.HOOD_MAX_VELOCITY_RPM / 60.0,
+        ShooterConstants.HOOD_MAX_ACCELERATION_RPM_PER_SECOND / 60.0));
+    profile.calculate(0,
+        new TrapezoidProfile.State(ShooterConstants.HOOD_ANGLE_LOW, 0),
+        new TrapezoidProfile.State(ShooterConstants.HOOD_ANGLE_HIGH, 0));
+    double limitSeconds = profile.totalTime() + SETTLE_MARGIN_SECONDS;
+
+    shooter.setHoodAngle(ShooterSubsystem.HoodAngle.HIGH);
+    assertTrue(SimRobot.stepUntil(shooter::isHoodAtTarget, limitSeconds),
+        () -> String.format("Hood didn't reach HIGH within %.2f s, at %.3f rotations", limitSeconds, shooter.getHoodPosition()));
+    assertTrue(shooter.getHoodSettleSeconds() <= limitSeconds,
+        () -> String.format("Hood Settle Seconds %.3f for HIGH is over %.2f s", shooter.getHoodSettleSeconds(), limitSeconds));
+
+    shooter.setHoodAngle(ShooterSubsystem.HoodAngle.LOW);
+    assertTrue(SimRobot.stepUntil(shooter::isHoodAtTarget, limitSeconds),
+        () -> String.format("Hood didn't reach LOW within %.2f s, at %.3f rotations", limitSeconds, shooter.getHoodPosition()));
+    assertTrue(shooter.getHoodSettleSeconds() <= limitSeconds,
+        () -> String.format("Hood Settle Seconds %.3f for LOW is over %.2f s", shooter.getHoodSettleSeconds(), limitSeconds));
+  }
+}
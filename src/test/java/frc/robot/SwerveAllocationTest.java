@@ -0,0 +1,94 @@
+package frc.robot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.IntConsumer;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.hal.HAL;
+import frc.lib.MutableSwerveKinematics;
+import frc.robot.Constants.SwerveConstants;
+import frc.robot.Subsystems.SwerveSubsystem;
+
+/**
+ * Checks that the per-loop swerve drive path allocates nothing once warmed up, using the JVM's
+ * per-thread allocation counter.
+ */
+class SwerveAllocationTest {
+    // Enough calls for the JIT to compile the path before measuring
+    private static final int WARMUP_CALLS = 20_000;
+    private static final int MEASURED_CALLS = 10_000;
+
+    private static final com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @BeforeAll
+    static void initializeHal(){
+        assertTrue(HAL.initialize(500, 0));
+    }
+
+    @Test
+    void kinematicsAndOptimizeAllocateNothing(){
+        MutableSwerveKinematics kinematics = new MutableSwerveKinematics(
+            SwerveConstants.moduleData[0].location(),
+            SwerveConstants.moduleData[1].location(),
+            SwerveConstants.moduleData[2].location(),
+            SwerveConstants.moduleData[3].location());
+        double[] optimized = new double[2];
+
+        assertEquals(0.0, bytesPerCall(i -> {
+            kinematics.toModuleStates(i % 7 - 3.0, i % 5 - 2.0, i % 3 - 1.0);
+            kinematics.desaturate(SwerveConstants.maxSpeed);
+            for (int module = 0; module < kinematics.getNumModules(); module++) {
+                SwerveModule.optimize(
+                    kinematics.getSpeed(module), kinematics.getAngleDegrees(module), i % 360, optimized);
+            }
+        }));
+    }
+
+    @Test
+    void moduleDrivePathAllocatesNothing(){
+        SwerveModule[] modules = new SwerveModule[SwerveConstants.moduleData.length];
+        for (int i = 0; i < modules.length; i++) {
+            modules[i] = new SwerveModule(
+                i, SwerveConstants.moduleData[i], new SwerveModuleIOSim(SwerveConstants.moduleData[i]));
+        }
+
+        // updateInputs() is left out: it steps the physics model, which is sim-only and allocates
+        assertEquals(0.0, bytesPerCall(i -> {
+            for (SwerveModule module : modules) {
+                module.setDesiredState(i % 7 - 3.0, i % 360, i % 2 == 0);
+                module.writeOutputs();
+                module.getState();
+                module.getPosition();
+            }
+        }));
+    }
+
+    @Test
+    void subsystemDrivePathAllocatesNothing(){
+        SwerveSubsystem swerve = SimRobot.get().getDrive();
+
+        // Field-oriented drive() rotates by the heading and then goes through driveFromSpeeds()
+        assertEquals(0.0, bytesPerCall(i -> {
+            swerve.drive(i % 7 - 3.0, i % 5 - 2.0, i % 3 - 1.0, i % 2 == 0);
+            swerve.writeOutputs();
+        }));
+    }
+
+    private static double bytesPerCall(IntConsumer call){
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            call.accept(i);
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            call.accept(i);
+        }
+        long after = threads.getCurrentThreadAllocatedBytes();
+        return (double) (after - before) / MEASURED_CALLS;
+    }
+}